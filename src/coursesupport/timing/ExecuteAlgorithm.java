@@ -3,6 +3,9 @@ package timing;
 import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import timing.output.Output;
 
@@ -19,11 +22,23 @@ import timing.output.Output;
 public class ExecuteAlgorithm<T,U> {
 
 	private final static int NUMREPEATS = 3;
+	//
+	// A run whose wall-clock time exceeds its CPU time by more than this
+	//   factor spent a significant part of its time descheduled, most likely
+	//   competing with another run for a core
+	//
+	private final static double INTERFERENCE_RATIO = 1.2;
 	private U              results;
 	private T              input;
 	private Algorithm<T,U> algorithm;
 	private Long           ticks;
 	private Duration       time;
+	private Duration       cpuTime;
+	private Long           allocatedBytes;
+	private Long           gcCount;
+	private Duration       gcTime;
+	private int            interferedRepeats;
+	private boolean        collectFirst = true;
 
 	/**
 	 * 
@@ -42,11 +57,16 @@ public class ExecuteAlgorithm<T,U> {
 	 */
 	public void run() {
 		algorithm.loadInput(input);
-		GenResults gs = new GenResults(algorithm, NUMREPEATS);
+		GenResults gs = new GenResults(algorithm, NUMREPEATS, collectFirst);
 		gs.run();
 		this.results = algorithm.getResults();
 		this.ticks   = gs.getTicks();
 		this.time    = gs.getTime();
+		this.cpuTime = gs.getCpuTime();
+		this.allocatedBytes = gs.getAllocatedBytes();
+		this.gcCount = gs.getGcCount();
+		this.gcTime  = gs.getGcTime();
+		this.interferedRepeats = gs.getInterferedRepeats(INTERFERENCE_RATIO);
 	}
 
 	public U getResults() {
@@ -57,9 +77,42 @@ public class ExecuteAlgorithm<T,U> {
 		return time;
 	}
 
+	/**
+	 * 
+	 * @return CPU time of the chosen run, or null if it could not be measured
+	 */
+	public Duration getCpuTime() {
+		return cpuTime;
+	}
+
 	public Long getTicks() {
 		return ticks;
 	}
+
+	/**
+	 * 
+	 * @return bytes allocated by the chosen run, or null if it could not be measured
+	 */
+	public Long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public Long getGcCount() {
+		return gcCount;
+	}
+
+	public Duration getGcTime() {
+		return gcTime;
+	}
+
+	/**
+	 * 
+	 * @return true if any repeat spent noticeably longer on the wall clock
+	 *   than on the CPU, suggesting another thread or process interfered
+	 */
+	public boolean showsInterference() {
+		return interferedRepeats > 0;
+	}
 	
 	/**
 	 * 
@@ -77,28 +130,153 @@ public class ExecuteAlgorithm<T,U> {
 			InputProvider<T> ip,
 			Iterable<Integer> sizes
 			) {
+		Algorithm<T,U> alg;
+		try {
+			alg = (Algorithm<T,U>) Class.forName(className).newInstance();
+		} catch (Throwable t) {
+			t.printStackTrace();
+			throw new Error("Error " + t);
+		}
+		return timeAlgorithm(name, alg, ip, sizes);
+	}
+
+	/**
+	 * Like timeAlgorithm, for an algorithm that has already been constructed,
+	 * for example one that needs constructor parameters.
+	 * 
+	 * @param name
+	 * @param alg the algorithm, which is reused for every size
+	 * @param ip can provide suitable input of specified size
+	 * @param sizes values of n to try for the algorithm
+	 * @return
+	 */
+	public static<T,U> List<U> timeAlgorithm(
+			String name,
+			Algorithm<T,U> alg,
+			InputProvider<T> ip,
+			Iterable<Integer> sizes
+			) {
 		try {
 			List<U> results = new LinkedList<U>();
-			Algorithm<T,U> alg = (Algorithm<T,U>) Class.forName(className).newInstance();
 			Output ticks = new Output(name+".ticks", name+"-ticks");
 			Output times = new Output(name+".time", name+"-time");
+			Output memory = memoryOutput(name);
 			for (int size : sizes) {
 				ExecuteAlgorithm<T,U> ea = new ExecuteAlgorithm<T,U>(
 						ip, alg, InputSpec.gen(size)
 						);
 				ea.run();
-				ticks.writeSizeValue(size, ea.getTicks());
-				times.writeSizeValue(size, ea.getTime().toMillis());
-				System.out.println("size \tticks \ttime");
-				System.out.println(size+" \t"+ea.getTicks()+" \t"+ea.getTime().toMillis());
+				record(size, ea, ticks, times, memory);
+				results.add(ea.getResults());
+			}
+			return results;
+		} catch (Throwable t) {
+			t.printStackTrace();
+			throw new Error("Error " + t);
+		}
+
+	}
+
+	/**
+	 * Like timeAlgorithm, but the sizes are run concurrently on a pool of
+	 * worker threads.  Each size gets its own instance of the algorithm
+	 * and generates its own input on the worker that runs it.  Results are
+	 * written to the Output files, and returned, in the order of sizes.
+	 * Runs whose wall-clock time is much larger than their CPU time are
+	 * reported, since their timings are likely skewed by the other workers.
+	 * Garbage is collected once before the pool starts rather than before
+	 * each run, since a full collection would stop the other workers' runs.
+	 * 
+	 * @param name
+	 * @param className String name of the class to be instantiated
+	 * @param ip can provide suitable input of specified size; must be safe to
+	 *    call from several threads at once
+	 * @param sizes values of n to try for the algorithm
+	 * @param workers number of sizes to run at the same time; 1 behaves like
+	 *    timeAlgorithm
+	 * @return
+	 */
+	public static<T,U> List<U> timeAlgorithm(
+			String name,
+			final String className,
+			final InputProvider<T> ip,
+			Iterable<Integer> sizes,
+			int workers
+			) {
+		if (workers <= 1) {
+			return timeAlgorithm(name, className, ip, sizes);
+		}
+		if (workers > Runtime.getRuntime().availableProcessors()) {
+			System.out.println("Warning: " + workers + " workers but only " 
+					+ Runtime.getRuntime().availableProcessors() + " processors; expect interference");
+		}
+		System.gc();
+		System.runFinalization();
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			List<Integer> order = new LinkedList<Integer>();
+			List<Future<ExecuteAlgorithm<T,U>>> pending = new LinkedList<Future<ExecuteAlgorithm<T,U>>>();
+			for (final int size : sizes) {
+				order.add(size);
+				pending.add(pool.submit(() -> {
+					@SuppressWarnings("unchecked")
+					Algorithm<T,U> alg = (Algorithm<T,U>) Class.forName(className).getDeclaredConstructor().newInstance();
+					ExecuteAlgorithm<T,U> ea = new ExecuteAlgorithm<T,U>(
+							ip, alg, InputSpec.gen(size)
+							);
+					ea.collectFirst = false;
+					ea.run();
+					return ea;
+				}));
+			}
+			List<U> results = new LinkedList<U>();
+			List<Integer> interfered = new LinkedList<Integer>();
+			Output ticks = new Output(name+".ticks", name+"-ticks");
+			Output times = new Output(name+".time", name+"-time");
+			Output memory = memoryOutput(name);
+			for (int i=0; i < order.size(); ++i) {
+				int size = order.get(i);
+				ExecuteAlgorithm<T,U> ea = pending.get(i).get();
+				record(size, ea, ticks, times, memory);
+				if (ea.showsInterference()) {
+					interfered.add(size);
+				}
 				results.add(ea.getResults());
 			}
+			if (!interfered.isEmpty()) {
+				System.out.println("Warning: wall-clock time exceeded CPU time by more than "
+						+ INTERFERENCE_RATIO + "x for sizes " + interfered 
+						+ "; rerun these with fewer workers");
+			}
 			return results;
 		} catch (Throwable t) {
 			t.printStackTrace();
 			throw new Error("Error " + t);
+		} finally {
+			pool.shutdownNow();
 		}
+	}
+
+	/**
+	 * Output with one column each for bytes allocated, collections, and
+	 *   collection time in milliseconds, so that slowdowns can be attributed
+	 *   to allocation rather than computation
+	 * @param name
+	 * @return
+	 */
+	public static Output memoryOutput(String name) {
+		return new Output(new String[] { name+".alloc", name+".gcs", name+".gcms" }, name+"-memory");
+	}
 
+	private static void record(int size, ExecuteAlgorithm<?,?> ea, Output ticks, Output times, Output memory) {
+		ticks.writeSizeValue(size, ea.getTicks());
+		times.writeSizeValue(size, ea.getTime().toMillis());
+		memory.writeSizeValues(size,
+				ea.getAllocatedBytes() == null ? -1L : ea.getAllocatedBytes(),
+				ea.getGcCount(),
+				ea.getGcTime().toMillis());
+		System.out.println("size \tticks \ttime");
+		System.out.println(size+" \t"+ea.getTicks()+" \t"+ea.getTime().toMillis());
 	}
 
 }
@@ -0,0 +1,180 @@
+package timing;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import timing.output.Output;
+import timing.results.LeastChooser;
+import timing.results.ResultsChooser;
+import timing.utils.SeededInts;
+import timing.utils.SizeAndLong;
+
+/**
+ * 
+ * Runs timing experiments with every (algorithm, size, repeat) in its own
+ * child JVM, so that no run inherits JIT profiles, heap fragmentation or
+ * GC state from the runs before it.
+ * The child reports its ticks and time on stdout; the parent chooses among
+ * the repeats and writes the same Output CSVs as ExecuteAlgorithm.timeAlgorithm.
+ * 
+ * The algorithm and the input provider are named by class, and both must
+ * have a public no-argument constructor, because the child instantiates them.
+ * Each child is given the parent's timing.seed (or the default seed), so
+ * that seeded input providers generate the same input in every child.
+ *
+ */
+public class ForkedExecution {
+
+	private final static int    NUMREPEATS = 3;
+	private final static String RESULT     = "FORKED-RESULT";
+
+	private final List<String> jvmArgs;
+	private final int          repeats;
+
+	/**
+	 * 
+	 * @param repeats how many child JVMs to launch per size
+	 * @param jvmArgs options for each child JVM, such as "-Xmx2g" or "-XX:+UseParallelGC"
+	 */
+	public ForkedExecution(int repeats, String... jvmArgs) {
+		this.repeats = repeats;
+		this.jvmArgs = Arrays.asList(jvmArgs);
+	}
+
+	public ForkedExecution(String... jvmArgs) {
+		this(NUMREPEATS, jvmArgs);
+	}
+
+	/**
+	 * 
+	 * @param name
+	 * @param className String name of the Algorithm class to be instantiated
+	 * @param inputProviderClassName String name of the InputProvider class to be instantiated
+	 * @param sizes values of n to try for the algorithm
+	 * @return the chosen time, in milliseconds, for each size
+	 */
+	public List<SizeAndLong> timeAlgorithm(
+			String name,
+			String className,
+			String inputProviderClassName,
+			Iterable<Integer> sizes
+			) {
+		try {
+			List<SizeAndLong> results = new LinkedList<SizeAndLong>();
+			ResultsChooser<Duration> timeChooser  = new LeastChooser<Duration>();
+			ResultsChooser<Long>     ticksChooser = new LeastChooser<Long>();
+			Output ticks = new Output(name+".ticks", name+"-ticks");
+			Output times = new Output(name+".time", name+"-time");
+			Output memory = ExecuteAlgorithm.memoryOutput(name);
+			for (int size : sizes) {
+				PriorityQueue<Duration> pq = new PriorityQueue<Duration>();
+				PriorityQueue<Long>     tq = new PriorityQueue<Long>();
+				long[][] runs = new long[repeats][];
+				for (int i=0; i < repeats; ++i) {
+					long[] r = fork(className, inputProviderClassName, size);
+					runs[i] = r;
+					tq.offer(r[0]);
+					pq.offer(Duration.ofNanos(r[1]));
+				}
+				long t = ticksChooser.getValue(tq);
+				Duration time = timeChooser.getValue(pq);
+				long ms = time.toMillis();
+				// Allocation and collections come from the repeat whose time was chosen
+				long[] chosen = runs[0];
+				for (long[] r : runs) {
+					if (r[1] == time.toNanos()) {
+						chosen = r;
+						break;
+					}
+				}
+				ticks.writeSizeValue(size, t);
+				times.writeSizeValue(size, ms);
+				memory.writeSizeValues(size, chosen[2], chosen[3], chosen[4]);
+				System.out.println("size \tticks \ttime");
+				System.out.println(size+" \t"+t+" \t"+ms);
+				results.add(new SizeAndLong(size, ms));
+			}
+			ticks.close();
+			times.close();
+			memory.close();
+			return results;
+		} catch (Throwable t) {
+			t.printStackTrace();
+			throw new Error("Error " + t);
+		}
+	}
+
+	/**
+	 * Launch one child JVM and wait for its result.
+	 * Anything else the child prints is passed through to System.out.
+	 * @return ticks, nanoseconds, bytes allocated, collections and
+	 *   collection milliseconds reported by the child
+	 */
+	private long[] fork(String className, String inputProviderClassName, int size) throws IOException, InterruptedException {
+		List<String> command = new LinkedList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(jvmArgs);
+		if (jvmArgs.stream().noneMatch(a -> a.startsWith("-Dtiming.seed="))) {
+			command.add("-Dtiming.seed=" + SeededInts.defaultSeed());
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ForkedExecution.class.getName());
+		command.add(className);
+		command.add(inputProviderClassName);
+		command.add("" + size);
+		Process p = new ProcessBuilder(command)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		long[] ans = null;
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith(RESULT)) {
+					String[] parts = line.split("\\s+");
+					ans = new long[parts.length - 2];
+					for (int i=0; i < ans.length; ++i) {
+						ans[i] = Long.parseLong(parts[i+2]);
+					}
+				}
+				else {
+					System.out.println(line);
+				}
+			}
+		}
+		int status = p.waitFor();
+		if (status != 0 || ans == null) {
+			throw new Error("Forked run of " + className + " at size " + size + " failed with status " + status);
+		}
+		return ans;
+	}
+
+	/**
+	 * Entry point for the child JVM: run the algorithm once at one size
+	 * and print the result line that the parent is waiting for.
+	 * @param args algorithm class name, input provider class name, size
+	 */
+	@SuppressWarnings("unchecked")
+	public static void main(String[] args) throws Exception {
+		if (args.length != 3) {
+			throw new Error("Usage: ForkedExecution algorithmClass inputProviderClass size");
+		}
+		Algorithm<Object,?> alg = (Algorithm<Object,?>) Class.forName(args[0]).getDeclaredConstructor().newInstance();
+		InputProvider<Object> ip = (InputProvider<Object>) Class.forName(args[1]).getDeclaredConstructor().newInstance();
+		int size = Integer.parseInt(args[2]);
+		alg.loadInput(ip.genInput(InputSpec.gen(size)));
+		GenResults gs = new GenResults(alg, 1);
+		gs.run();
+		long alloc = gs.getAllocatedBytes() == null ? -1L : gs.getAllocatedBytes();
+		System.out.println(RESULT + " " + size + " " + gs.getTicks() + " " + gs.getTime().toNanos()
+				+ " " + alloc + " " + gs.getGcCount() + " " + gs.getGcTime().toMillis());
+	}
+
+}
@@ -17,7 +17,15 @@ public class GenResults implements Runnable {
 	final private RepeatRunnable rr;
 	private int repeats;
 	private Duration time;
+	private Duration cpuTime;
 	private Long     ticks;
+	private Long     allocatedBytes;
+	private Long     gcCount;
+	private Duration gcTime;
+	private final boolean collectFirst;
+	// Wall-clock and CPU time of each repeat, -1 where CPU time is unknown
+	private long[] wallNanos;
+	private long[] cpuNanos;
 	private ResultsChooser<Duration> timeChooser;
 	private ResultsChooser<Long>     ticksChooser;
 
@@ -31,18 +39,41 @@ public class GenResults implements Runnable {
 	 * @param ticksChooser How to choose the results for ticks
 	 */
 	public GenResults(RepeatRunnable rr, int repeats, ResultsChooser<Duration> timeChooser, ResultsChooser<Long> ticksChooser) {
+		this(rr, repeats, timeChooser, ticksChooser, true);
+	}
+
+	/**
+	 * 
+	 * @param rr  The payload to be run 
+	 * @param repeats How many times to try the payload for timing
+	 * @param timeChooser How to choose the results for time
+	 * @param ticksChooser How to choose the results for ticks
+	 * @param collectFirst whether to collect garbage before each repeat
+	 */
+	public GenResults(RepeatRunnable rr, int repeats, ResultsChooser<Duration> timeChooser, ResultsChooser<Long> ticksChooser,
+			boolean collectFirst) {
 		this.rr      = rr;
+		this.collectFirst = collectFirst;
 		this.repeats = repeats;
 		this.timeChooser  = timeChooser;
 		this.ticksChooser = ticksChooser;
 		this.time    = null;
+		this.cpuTime = null;
 		this.ticks   = null;
+		this.allocatedBytes = null;
+		this.gcCount = null;
+		this.gcTime  = null;
 	}
 	
 	public GenResults(RepeatRunnable rr, int repeats) {
+		this(rr, repeats, true);
+	}
+
+	public GenResults(RepeatRunnable rr, int repeats, boolean collectFirst) {
 		this(rr, repeats, 
 				new LeastChooser<Duration>(), 
-				new LeastChooser<Long>()
+				new LeastChooser<Long>(),
+				collectFirst
 				);
 	}
 
@@ -50,28 +81,90 @@ public class GenResults implements Runnable {
 		return this.time;
 	}
 
+	/**
+	 * 
+	 * @return the CPU time of the chosen repeat, or null if the JVM
+	 *   cannot measure thread CPU time
+	 */
+	public Duration getCpuTime() {
+		return this.cpuTime;
+	}
+
 	public Long getTicks() {
 		return this.ticks;
 	}
 
+	/**
+	 * 
+	 * @return bytes allocated by the chosen run, or null if the JVM
+	 *   cannot measure per-thread allocation
+	 */
+	public Long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	public Long getGcCount() {
+		return this.gcCount;
+	}
+
+	public Duration getGcTime() {
+		return this.gcTime;
+	}
+
+	/**
+	 * 
+	 * @param ratio how much longer than its CPU time a repeat may take on the wall clock
+	 * @return number of repeats that took longer than that, each judged on its own
+	 */
+	public int getInterferedRepeats(double ratio) {
+		int ans = 0;
+		for (int i=0; i < wallNanos.length; ++i) {
+			if (cpuNanos[i] > 0 && wallNanos[i] > ratio * cpuNanos[i])
+				ans++;
+		}
+		return ans;
+	}
+
 	/**
 	 * Actually do the experiment.  We run it repeats times, and then
-	 * use the ResultsChooser to pick from the results.
+	 * use the ResultsChooser to pick from the results.  The time chooser
+	 * picks one repeat by its wall-clock time, and the CPU time, allocation
+	 * and collections reported are all from that same repeat, so that they
+	 * can be compared with each other.
 	 */
 	public void run() {
 		PriorityQueue<Duration> pq = new PriorityQueue<Duration>();
 		PriorityQueue<Long>     tq = new PriorityQueue<Long>();
+		TimedRunnable[] runs = new TimedRunnable[repeats];
+		wallNanos = new long[repeats];
+		cpuNanos  = new long[repeats];
 		for (int i=0; i < repeats; ++i) {
-			TimedRunnable tr = new TimedRunnable(rr);
+			TimedRunnable tr = new TimedRunnable(rr, collectFirst);
 			tr.start();
 			Duration time = tr.getTime();
+			Duration cpu  = tr.getCpuTime();
 			Long ticks = tr.getTicker().getTickCount();
 			tq.offer(ticks);
 			pq.offer(time);
+			runs[i] = tr;
+			wallNanos[i] = time.toNanos();
+			cpuNanos[i]  = cpu == null ? -1L : cpu.toNanos();
 		}
 		
-		this.time  = timeChooser.getValue(pq);
-		this.ticks = ticksChooser.getValue(tq);
+		this.time    = timeChooser.getValue(pq);
+		this.ticks   = ticksChooser.getValue(tq);
+		TimedRunnable chosen = runs[0];
+		for (TimedRunnable tr : runs) {
+			if (tr.getTime().equals(this.time)) {
+				chosen = tr;
+				break;
+			}
+		}
+		long alloc = chosen.getAllocatedBytes();
+		this.cpuTime = chosen.getCpuTime();
+		this.allocatedBytes = alloc < 0 ? null : alloc;
+		this.gcCount = chosen.getGcCount();
+		this.gcTime  = chosen.getGcTime();
 	}
 
 
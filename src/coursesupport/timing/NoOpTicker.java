@@ -0,0 +1,32 @@
+package timing;
+
+/**
+ * A Ticker that ignores every tick.  Pass this to an implementation
+ * (for example, a MinHeap) when the bookkeeping is not wanted:
+ * the empty methods are trivially inlined by the JIT, so the
+ * instrumentation costs nothing at run time.
+ * Use a plain Ticker when operation counts are needed.
+ */
+final public class NoOpTicker extends Ticker {
+
+	public final static NoOpTicker instance = new NoOpTicker();
+
+	private NoOpTicker() { }
+
+	@Override
+	final public void tick() {
+	}
+
+	@Override
+	final public void tick(long ticks) {
+	}
+
+	/**
+	 * @return always 0, since no ticks are recorded
+	 */
+	@Override
+	final public long getTickCount() {
+		return 0L;
+	}
+
+}
@@ -3,10 +3,12 @@ package timing;
 /**
  * Keeps track of the number of operations associated with an
  * implementation.
+ * Subclasses may replace the counting strategy; see {@link NoOpTicker}
+ * for one that discards all ticks.
  * @author roncytron
  *
  */
-final public class Ticker {
+public class Ticker {
 	
 	private long tickCount;
 
@@ -17,15 +19,15 @@ final public class Ticker {
 	/**
 	 * Log one more operation on behalf of the implementation.
 	 */
-	final public void tick() {
+	public void tick() {
 		++tickCount;
 	}
 	
-	final public void tick(long ticks) {
+	public void tick(long ticks) {
 		tickCount += ticks;
 	}
 	
-	final public long getTickCount() {
+	public long getTickCount() {
 		return this.tickCount;
 	}
 
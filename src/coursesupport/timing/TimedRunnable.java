@@ -1,5 +1,8 @@
 package timing;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.Duration;
 import java.time.Instant;
 
@@ -8,7 +11,9 @@ import timing.utils.Wrappers;
 /**
  * Runs a specified Runnable, keeping track of
  *   when it started and ended,
- *   so that the Duration of the Runnable can be returned
+ *   so that the Duration of the Runnable can be returned.
+ * Also records the bytes allocated by the running thread and the
+ *   collections the JVM performed while the Runnable ran.
  *   
  * @author roncytron
  *
@@ -19,14 +24,33 @@ public class TimedRunnable extends Thread implements Runnable {
 	private Instant start = null;
 	private Instant end   = null;
 	private Ticker ticker = null;
+	private long cpuStart = -1L;
+	private long cpuEnd   = -1L;
+	private long allocStart = -1L;
+	private long allocEnd   = -1L;
+	private long gcCountStart, gcCountEnd;
+	private long gcMillisStart, gcMillisEnd;
+	final private boolean collectFirst;
 	private static boolean logging = true;
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
 
 	/**
 	 * Construct but do not yet run the Runnable
 	 * @param r The Runnable that will be run
 	 */
 	public TimedRunnable(RepeatRunnable r) {
+		this(r, true);
+	}
+
+	/**
+	 * Construct but do not yet run the Runnable
+	 * @param r The Runnable that will be run
+	 * @param collectFirst whether to collect garbage before the run; a full
+	 *   collection stops every thread, so runs timed side by side should not
+	 */
+	public TimedRunnable(RepeatRunnable r, boolean collectFirst) {
 		this.runnable = r;
+		this.collectFirst = collectFirst;
 	}
 
 	/**
@@ -50,11 +74,14 @@ public class TimedRunnable extends Thread implements Runnable {
 		//
 		// collect your garbage, Java!
 		// 
-		System.gc();
-		System.runFinalization();
+		if (collectFirst) {
+			System.gc();
+			System.runFinalization();
+		}
 		//
 		//  and finish all the dead objects -- get all done you need to do
 		//
+		markStart();
 		this.start = Instant.now();        // (1)
 		synchronized (this) {
 			try {
@@ -62,12 +89,15 @@ public class TimedRunnable extends Thread implements Runnable {
 			}
 			catch (Throwable t) {
 				this.end = Instant.now();      // (3)
+				markEnd();
 				System.out.println("Runnable " + runnable + " aborted, threw error " + t);
 				throw t;
 			}
 			finally {
-				if (this.end == null)
+				if (this.end == null) {
 					this.end = Instant.now();  // (3)
+					markEnd();
+				}
 				if (logging)
 					System.out.println("...Ending " + runnable );
 				Wrappers.notifyAll(this); //Notifies everyone that this.end might have changed
@@ -89,6 +119,117 @@ public class TimedRunnable extends Thread implements Runnable {
 		return Duration.between(start, end);
 	}
 	
+	/**
+	 * If the Runnable as not yet completed execution, wait
+	 * 
+	 * @return the CPU time consumed by this thread while running the Runnable,
+	 *   or null if the JVM cannot measure thread CPU time
+	 */
+	public synchronized Duration getCpuTime() {
+
+		while(this.end == null){
+			Wrappers.wait(this);	  //waits for the Runnable to finish
+		}
+
+		if (cpuStart < 0 || cpuEnd < 0)
+			return null;
+		return Duration.ofNanos(cpuEnd - cpuStart);
+	}
+
+	/**
+	 * If the Runnable as not yet completed execution, wait
+	 * 
+	 * @return bytes allocated by this thread while running the Runnable,
+	 *   or -1 if the JVM cannot measure per-thread allocation
+	 */
+	public synchronized long getAllocatedBytes() {
+
+		while(this.end == null){
+			Wrappers.wait(this);	  //waits for the Runnable to finish
+		}
+
+		if (allocStart < 0 || allocEnd < 0)
+			return -1L;
+		return allocEnd - allocStart;
+	}
+
+	/**
+	 * If the Runnable as not yet completed execution, wait
+	 * 
+	 * @return number of garbage collections, across all collectors,
+	 *   that occurred while the Runnable ran
+	 */
+	public synchronized long getGcCount() {
+
+		while(this.end == null){
+			Wrappers.wait(this);	  //waits for the Runnable to finish
+		}
+
+		return gcCountEnd - gcCountStart;
+	}
+
+	/**
+	 * If the Runnable as not yet completed execution, wait
+	 * 
+	 * @return accumulated collection time, across all collectors,
+	 *   while the Runnable ran
+	 */
+	public synchronized Duration getGcTime() {
+
+		while(this.end == null){
+			Wrappers.wait(this);	  //waits for the Runnable to finish
+		}
+
+		return Duration.ofMillis(gcMillisEnd - gcMillisStart);
+	}
+
+	private void markStart() {
+		this.gcCountStart  = gcCount();
+		this.gcMillisStart = gcMillis();
+		this.allocStart    = threadAllocatedBytes();
+		this.cpuStart      = threadCpuTime();
+	}
+
+	private void markEnd() {
+		this.cpuEnd      = threadCpuTime();
+		this.allocEnd    = threadAllocatedBytes();
+		this.gcCountEnd  = gcCount();
+		this.gcMillisEnd = gcMillis();
+	}
+
+	private static long threadCpuTime() {
+		return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1L;
+	}
+
+	//
+	// Per-thread allocation counters are a HotSpot extension,
+	//   so they may not be present on every JVM
+	//
+	private static long threadAllocatedBytes() {
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+			if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled())
+				return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1L;
+	}
+
+	private static long gcCount() {
+		long ans = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			ans += Math.max(0, gc.getCollectionCount());
+		}
+		return ans;
+	}
+
+	private static long gcMillis() {
+		long ans = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			ans += Math.max(0, gc.getCollectionTime());
+		}
+		return ans;
+	}
+	
 	public Ticker getTicker() {
 		return this.ticker;
 	}
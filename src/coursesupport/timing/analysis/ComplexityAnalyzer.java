@@ -0,0 +1,183 @@
+package timing.analysis;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.csvreader.CsvReader;
+
+import timing.utils.SizeAndLong;
+
+/**
+ * Fits a series of (size, value) measurements, such as the ticks or
+ * times written by ExecuteAlgorithm.timeAlgorithm, to candidate growth
+ * models of the form value = c * f(n), and compares a series against a
+ * stored baseline so that performance regressions can fail a build.
+ *
+ */
+public class ComplexityAnalyzer {
+
+	/**
+	 * Candidate growth functions f(n).
+	 */
+	public enum Model {
+		LINEAR("n") {
+			public double f(double n) { return n; }
+		},
+		NLOGN("n lg n") {
+			public double f(double n) { return n <= 1 ? 0 : n * Math.log(n) / Math.log(2); }
+		},
+		QUADRATIC("n^2") {
+			public double f(double n) { return n * n; }
+		};
+
+		private final String description;
+
+		private Model(String description) {
+			this.description = description;
+		}
+
+		abstract public double f(double n);
+
+		public String toString() {
+			return description;
+		}
+	}
+
+	/**
+	 * The result of fitting one series to one model.
+	 */
+	public static class Fit {
+		public final Model  model;
+		public final double constant;
+		public final double rSquared;
+
+		private Fit(Model model, double constant, double rSquared) {
+			this.model    = model;
+			this.constant = constant;
+			this.rSquared = rSquared;
+		}
+
+		@Override
+		public String toString() {
+			return "Fit [" + constant + " * " + model + ", R^2=" + rSquared + "]";
+		}
+	}
+
+	/**
+	 * Least-squares fit of value = c * f(size), with R^2 measured
+	 * against the mean of the values.
+	 * @param series measurements, at least two of them
+	 * @param model the f to fit
+	 * @return
+	 */
+	public static Fit fit(List<SizeAndLong> series, Model model) {
+		if (series.size() < 2) {
+			throw new Error("Need at least two points to fit " + model + ", got " + series.size());
+		}
+		double ff = 0, fy = 0, mean = 0;
+		for (SizeAndLong p : series) {
+			double f = model.f(p.size);
+			ff   += f * f;
+			fy   += f * p.value;
+			mean += p.value;
+		}
+		mean /= series.size();
+		double c = fy / ff;
+		double residual = 0, total = 0;
+		for (SizeAndLong p : series) {
+			double e = p.value - c * model.f(p.size);
+			double d = p.value - mean;
+			residual += e * e;
+			total    += d * d;
+		}
+		double r2 = total == 0 ? 1.0 : 1.0 - residual / total;
+		return new Fit(model, c, r2);
+	}
+
+	/**
+	 * 
+	 * @param series measurements
+	 * @return the fit, among all the Models, with the highest R^2
+	 */
+	public static Fit bestFit(List<SizeAndLong> series) {
+		Fit ans = null;
+		for (Model m : Model.values()) {
+			Fit f = fit(series, m);
+			if (ans == null || f.rSquared > ans.rSquared) {
+				ans = f;
+			}
+		}
+		return ans;
+	}
+
+	/**
+	 * Fail if series grows according to a different model than the
+	 * baseline, or if its constant for the baseline's model is more than
+	 * (1+tolerance) times the baseline's constant.
+	 * @param series the current measurements
+	 * @param baseline measurements that are known to be acceptable
+	 * @param tolerance allowed relative growth of the constant, such as 0.10
+	 * @return the fit of series under the baseline's model
+	 */
+	public static Fit checkAgainst(List<SizeAndLong> series, List<SizeAndLong> baseline, double tolerance) {
+		Fit expected = bestFit(baseline);
+		Fit actual   = bestFit(series);
+		if (actual.model != expected.model) {
+			throw new Error("Growth regressed: best fit is now " + actual 
+					+ " but the baseline is " + expected);
+		}
+		if (actual.constant > expected.constant * (1.0 + tolerance)) {
+			throw new Error("Constant regressed by more than " + (100*tolerance) + "%: now " + actual
+					+ " but the baseline is " + expected);
+		}
+		return actual;
+	}
+
+	/**
+	 * Like checkAgainst, with the baseline read from a CSV file
+	 * such as one written by Output.
+	 */
+	public static Fit checkAgainst(List<SizeAndLong> series, String baselineCsv, double tolerance) {
+		return checkAgainst(series, readCsv(baselineCsv), tolerance);
+	}
+
+	/**
+	 * Read the first two columns (n and a value) of a CSV file written by Output.
+	 * @param file path of the CSV file
+	 * @return
+	 */
+	public static List<SizeAndLong> readCsv(String file) {
+		List<SizeAndLong> ans = new LinkedList<SizeAndLong>();
+		CsvReader r = null;
+		try {
+			r = new CsvReader(file);
+			r.readHeaders();
+			while (r.readRecord()) {
+				ans.add(new SizeAndLong(Integer.parseInt(r.get(0)), Long.parseLong(r.get(1))));
+			}
+		} catch (IOException e) {
+			throw new Error("Could not read " + file + ": " + e);
+		} finally {
+			if (r != null)
+				r.close();
+		}
+		return ans;
+	}
+
+	/**
+	 * Print the fits for each model, and the best one, for each CSV file named.
+	 * @param args paths of CSV files, for example outputs/heapsort-ticks0.csv
+	 */
+	public static void main(String[] args) {
+		for (String file : args) {
+			List<SizeAndLong> series = readCsv(file);
+			System.out.println(file);
+			for (Model m : Model.values()) {
+				System.out.println("  " + fit(series, m));
+			}
+			System.out.println("  best: " + bestFit(series));
+		}
+	}
+
+}
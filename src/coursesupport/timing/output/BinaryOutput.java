@@ -0,0 +1,129 @@
+package timing.output;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.csvreader.CsvWriter;
+
+/**
+ * A compact alternative to Output for experiments that write millions
+ * of records.  Each record is the size followed by one long per column,
+ * written in binary through a large buffer that is flushed only when
+ * it fills and on close().
+ * 
+ * The file starts with a header naming the columns, so it can be
+ * converted back to the CSV form that Output writes with toCsv().
+ *
+ */
+public class BinaryOutput {
+
+	private final static int MAGIC = 0x48505142;  // "HPQB"
+
+	private final DataOutputStream out;
+	private final int columns;
+
+	/**
+	 * 
+	 * @param columns names of the value columns
+	 * @param file name of the output file, created uniquely in outputs/
+	 *    just as Output does
+	 */
+	public BinaryOutput(String[] columns, String file) {
+		if (!file.endsWith(".bin")) {
+			file = file + ".bin";
+		}
+		this.columns = columns.length;
+		try {
+			String[] parts = file.split("\\.(?=[^\\.]+$)");
+			Path path = Output.createUnique("outputs/"+parts[0], parts[1]);
+			this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile()), 1 << 16));
+			out.writeInt(MAGIC);
+			out.writeInt(columns.length);
+			for (String c : columns) {
+				out.writeUTF(c);
+			}
+		} catch (IOException e) {
+			throw new Error("Could not create " + file + ": " + e);
+		}
+	}
+
+	/**
+	 * Write one record with a value for each column named when this BinaryOutput was created
+	 * @param size the size column
+	 * @param values remaining columns, in order
+	 */
+	public void writeSizeValues(int size, long... values) {
+		if (values.length != columns) {
+			throw new Error("Expected " + columns + " values but got " + values.length);
+		}
+		try {
+			out.writeInt(size);
+			for (long value : values) {
+				out.writeLong(value);
+			}
+		} catch (IOException e) {
+			throw new Error("Could not write record: " + e);
+		}
+	}
+
+	public void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new Error("Could not close: " + e);
+		}
+	}
+
+	/**
+	 * Convert a file written by BinaryOutput into CSV with the same columns.
+	 * @param binFile path of the binary file
+	 * @param csvFile path of the CSV file to write
+	 */
+	public static void toCsv(String binFile, String csvFile) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(binFile), 1 << 16))) {
+			if (in.readInt() != MAGIC) {
+				throw new Error(binFile + " was not written by BinaryOutput");
+			}
+			int columns = in.readInt();
+			CsvWriter w = new CsvWriter(new FileWriter(csvFile), ',');
+			try {
+				w.write("n");
+				for (int i=0; i < columns; ++i) {
+					w.write(in.readUTF());
+				}
+				w.endRecord();
+				while (true) {
+					int size;
+					try {
+						size = in.readInt();
+					} catch (EOFException e) {
+						break;
+					}
+					w.write("" + size);
+					for (int i=0; i < columns; ++i) {
+						w.write("" + in.readLong());
+					}
+					w.endRecord();
+				}
+			} finally {
+				w.close();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new Error("Usage: BinaryOutput file.bin file.csv");
+		}
+		toCsv(args[0], args[1]);
+	}
+
+}
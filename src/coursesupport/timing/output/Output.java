@@ -1,8 +1,12 @@
 package timing.output;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import com.csvreader.CsvWriter;
 
@@ -11,32 +15,78 @@ import timing.utils.SizeAndLong;
 public class Output {
 
 	private CsvWriter w;
+	private final int flushEvery;  // records written between flushes
+	private int       unflushed;
 
 	public Output(String exper, String file) {
 		this(exper,file, false);
 	}
 
-	private static int findDigit(String p, String q) {
+	/**
+	 * Create the first of p0.q, p1.q, ... that does not yet exist.
+	 * Creation is atomic, so two experiments started at the same time
+	 * cannot claim the same file.
+	 * @param p path and name, without the digit
+	 * @param q extension
+	 * @return the newly created, empty file
+	 */
+	static Path createUnique(String p, String q) {
 		for (int i=0; i < 100; ++i) {
-			File f = new File(p+i+"."+q);
-			if (!f.exists()) {
-				return i;
+			try {
+				return Files.createFile(Paths.get(p+i+"."+q));
+			} catch (FileAlreadyExistsException e) {
+				// try the next digit
+			} catch (IOException e) {
+				throw new Error("Could not create " + p+i+"."+q + ": " + e);
 			}
 		}
 		throw new Error("Out of digits for unique file " + p);
 	}
 
 	public Output(String exper, String file, boolean append) {
+		this(new String[] { exper }, file, append);
+	}
+
+	/**
+	 * An output file with one column per experiment value, after the size column
+	 * @param columns names of the value columns
+	 * @param file name of the output file
+	 */
+	public Output(String[] columns, String file) {
+		this(columns, file, false);
+	}
+
+	public Output(String[] columns, String file, boolean append) {
+		this(columns, file, append, 1);
+	}
+
+	/**
+	 * A buffered output file, for experiments that write many records.
+	 * Records are flushed every flushEvery records and on close(), so
+	 * close() must be called or the tail of the file may be lost.
+	 * @param columns names of the value columns
+	 * @param file name of the output file
+	 * @param flushEvery number of records between flushes
+	 */
+	public Output(String[] columns, String file, int flushEvery) {
+		this(columns, file, false, flushEvery);
+	}
+
+	private Output(String[] columns, String file, boolean append, int flushEvery) {
+		this.flushEvery = Math.max(1, flushEvery);
+		this.unflushed  = 0;
 		if (!file.endsWith(".csv")) {
 			file    = file + ".csv";
 		}
 		try {
 			String[] parts = file.split("\\.(?=[^\\.]+$)");
-			int digit = findDigit("outputs/"+parts[0], parts[1]);
-			FileWriter fw = new FileWriter("outputs/" + parts[0]+digit+"."+parts[1], append);
+			Path path = createUnique("outputs/"+parts[0], parts[1]);
+			BufferedWriter fw = new BufferedWriter(new FileWriter(path.toFile(), append), 1 << 16);
 			this.w  = new CsvWriter(fw, ',');
 			w.write("n");
-			w.write(exper);
+			for (String c : columns) {
+				w.write(c);
+			}
 			w.endRecord();
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
@@ -57,12 +107,26 @@ public class Output {
 	}
 
 	public void writeSizeValue(int size, long value) {
+		writeSizeValues(size, value);
+	}
+
+	/**
+	 * Write one record with a value for each column named when this Output was created
+	 * @param size the size column
+	 * @param values remaining columns, in order
+	 */
+	public void writeSizeValues(int size, long... values) {
 		try {
 			// System.out.println("writing " + size + " " + value);
 			w.write("" + size);
-			w.write("" + value);
+			for (long value : values) {
+				w.write("" + value);
+			}
 			w.endRecord();
-			w.flush();
+			if (++unflushed >= flushEvery) {
+				w.flush();
+				unflushed = 0;
+			}
 		} catch (Throwable t) {
 			throw new Error("oops");
 		}
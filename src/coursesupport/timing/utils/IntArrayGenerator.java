@@ -7,9 +7,28 @@ import timing.InputProvider;
 
 public class IntArrayGenerator implements InputProvider<Integer[]> {
 
+	private final Long seed;
+
+	/**
+	 * Seeded from the system property timing.seed if it is set, as it is in
+	 * ForkedExecution's child JVMs, and unseeded otherwise.
+	 */
+	public IntArrayGenerator() {
+		this.seed = Long.getLong("timing.seed");
+	}
+
+	/**
+	 * 
+	 * @param seed makes the generated arrays reproducible: the same seed
+	 *   and size always give the same array
+	 */
+	public IntArrayGenerator(long seed) {
+		this.seed = seed;
+	}
+
 	@Override
 	public Integer[] genInput(InputSpec size) {
-		Random r = new Random();
+		Random r = seed == null ? new Random() : new Random(SeededInts.forSize(seed, size.getFirstParameter()));
 		Integer[] ans = new Integer[size.getFirstParameter()];
 		for (int i=0; i < ans.length; ++i) {
 			ans[i] = r.nextInt();
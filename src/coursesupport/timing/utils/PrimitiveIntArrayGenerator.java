@@ -0,0 +1,28 @@
+package timing.utils;
+
+import timing.InputProvider;
+import timing.InputSpec;
+
+/**
+ * Like IntArrayGenerator, but produces an int[], which avoids boxing
+ * every value, and is reproducible for a given seed.
+ *
+ */
+public class PrimitiveIntArrayGenerator implements InputProvider<int[]> {
+
+	private final SeededIntsGenerator gen;
+
+	public PrimitiveIntArrayGenerator() {
+		this(SeededInts.defaultSeed());
+	}
+
+	public PrimitiveIntArrayGenerator(long seed) {
+		this.gen = new SeededIntsGenerator(seed);
+	}
+
+	@Override
+	public int[] genInput(InputSpec size) {
+		return gen.genInput(size).toArray();
+	}
+
+}
@@ -0,0 +1,30 @@
+package timing.utils;
+
+import java.util.SplittableRandom;
+
+import timing.InputProvider;
+import timing.InputSpec;
+
+/**
+ * Produces a long[] of random values, reproducible for a given seed.
+ *
+ */
+public class PrimitiveLongArrayGenerator implements InputProvider<long[]> {
+
+	private final long seed;
+
+	public PrimitiveLongArrayGenerator() {
+		this(SeededInts.defaultSeed());
+	}
+
+	public PrimitiveLongArrayGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	public long[] genInput(InputSpec size) {
+		int n = size.getFirstParameter();
+		return new SplittableRandom(SeededInts.forSize(seed, n)).longs(n).toArray();
+	}
+
+}
@@ -0,0 +1,70 @@
+package timing.utils;
+
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A reproducible sequence of random ints that is generated on demand
+ * rather than stored.  Every call to iterator() or stream() produces the
+ * same values, so an Algorithm can consume it once per repeat, and a
+ * forked JVM given the same seed and length sees identical input.
+ *
+ */
+public class SeededInts {
+
+	private final int  length;
+	private final long seed;
+
+	public SeededInts(int length, long seed) {
+		this.length = length;
+		this.seed   = seed;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return stream().iterator();
+	}
+
+	public IntStream stream() {
+		return new SplittableRandom(seed).ints(length);
+	}
+
+	public int[] toArray() {
+		return stream().toArray();
+	}
+
+	/**
+	 * Derive the seed for one size from an experiment's seed, so that each
+	 * size gets different values no matter what order the sizes are run in.
+	 * @param seed the experiment's seed
+	 * @param size the size being generated
+	 * @return
+	 */
+	public static long forSize(long seed, int size) {
+		return new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (size + 1))).nextLong();
+	}
+
+	/**
+	 * The seed used by the no-argument constructors of the seeded generators:
+	 * the system property timing.seed if set (for example, passed to forked
+	 * JVMs as -Dtiming.seed=42), and a fixed default otherwise.
+	 * @return
+	 */
+	public static long defaultSeed() {
+		return Long.getLong("timing.seed", 247L);
+	}
+
+	@Override
+	public String toString() {
+		return "SeededInts [length=" + length + ", seed=" + seed + "]";
+	}
+
+}
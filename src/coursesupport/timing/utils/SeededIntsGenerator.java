@@ -0,0 +1,29 @@
+package timing.utils;
+
+import timing.InputProvider;
+import timing.InputSpec;
+
+/**
+ * Provides random ints that are generated as they are consumed,
+ * so even very large sizes take no memory for the input.
+ *
+ */
+public class SeededIntsGenerator implements InputProvider<SeededInts> {
+
+	private final long seed;
+
+	public SeededIntsGenerator() {
+		this(SeededInts.defaultSeed());
+	}
+
+	public SeededIntsGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	public SeededInts genInput(InputSpec size) {
+		int n = size.getFirstParameter();
+		return new SeededInts(n, SeededInts.forSize(seed, n));
+	}
+
+}
@@ -0,0 +1,13 @@
+package heaps;
+
+/**
+ * IntHeapSort using Wegener's bottom-up sift-down.
+ *
+ */
+public class BottomUpIntHeapSort extends IntHeapSort {
+
+	public BottomUpIntHeapSort() {
+		super(true);
+	}
+
+}
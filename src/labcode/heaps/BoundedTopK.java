@@ -0,0 +1,198 @@
+package heaps;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import timing.NoOpTicker;
+
+/**
+ * Keeps the k best elements seen so far from a stream of any length:
+ * either the k with the largest priorities or the k with the smallest.
+ * 
+ * The elements are kept in a MinHeap ordered so that the worst kept
+ * element is at the root.  Once k elements are kept, a candidate that is
+ * no better than the root is rejected with that single comparison, and
+ * nothing is allocated for it; a better one replaces the root with a
+ * single sift-down.
+ * 
+ * @param <E> The type of the elements
+ * @param <P> The type being used for priorities
+ */
+public class BoundedTopK<E, P extends Comparable<P>> implements Iterable<E> {
+
+	/**
+	 * A priority whose order is reversed when keeping the smallest
+	 * elements, so the MinHeap's root is always the worst one kept.
+	 */
+	private static class Ranked<P extends Comparable<P>> implements Comparable<Ranked<P>> {
+		private final P priority;
+		private final boolean reversed;
+
+		private Ranked(P priority, boolean reversed) {
+			this.priority = priority;
+			this.reversed = reversed;
+		}
+
+		@Override
+		public int compareTo(Ranked<P> o) {
+			return reversed ? o.priority.compareTo(priority) : priority.compareTo(o.priority);
+		}
+
+		@Override
+		public String toString() {
+			return "" + priority;
+		}
+	}
+
+	private final MinHeap<E, Ranked<P>> heap;
+	private final int k;
+	private final boolean largest;
+
+	/**
+	 * 
+	 * @param k how many elements to keep
+	 * @param largest true to keep the largest priorities, false for the smallest
+	 */
+	public BoundedTopK(int k, boolean largest) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative, but was " + k);
+		}
+		this.heap    = new MinHeap<E, Ranked<P>>(k, NoOpTicker.instance);
+		this.k       = k;
+		this.largest = largest;
+	}
+
+	public static <E, P extends Comparable<P>> BoundedTopK<E,P> keepLargest(int k) {
+		return new BoundedTopK<E,P>(k, true);
+	}
+
+	public static <E, P extends Comparable<P>> BoundedTopK<E,P> keepSmallest(int k) {
+		return new BoundedTopK<E,P>(k, false);
+	}
+
+	/**
+	 * Consider one more element.
+	 * @param element the element
+	 * @param priority its priority
+	 * @return true if the element is now among those kept
+	 */
+	public boolean offer(E element, P priority) {
+		if (heap.size() < k) {
+			heap.insert(element, new Ranked<P>(priority, !largest));
+			return true;
+		}
+		if (k == 0 || !beats(priority, heap.peekMin().getPriority().priority)) {
+			return false;
+		}
+		heap.replaceMin(element, new Ranked<P>(priority, !largest));
+		return true;
+	}
+
+	private boolean beats(P candidate, P worst) {
+		int c = candidate.compareTo(worst);
+		return largest ? c > 0 : c < 0;
+	}
+
+	/**
+	 * Offer every remaining element of source, for example
+	 * from a collection's spliterator() or from a trySplit() part.
+	 * @param source the elements
+	 * @param priority gives the priority of each element
+	 */
+	public void offerAll(Spliterator<? extends E> source, Function<? super E, ? extends P> priority) {
+		source.forEachRemaining(e -> offer(e, priority.apply(e)));
+	}
+
+	/**
+	 * Offer everything kept by other, which must keep the same end (largest or smallest).
+	 */
+	public void offerAll(BoundedTopK<? extends E, P> other) {
+		for (PQEntry<? extends E, Ranked<P>> e : other.heap) {
+			offer(e.getElement(), e.getPriority().priority);
+		}
+	}
+
+	public int size() {
+		return heap.size();
+	}
+
+	public boolean isFull() {
+		return heap.size() == k;
+	}
+
+	/**
+	 * 
+	 * @return the priority a candidate must beat once full, or null if nothing is kept
+	 */
+	public P worstKept() {
+		return heap.isEmpty() ? null : heap.peekMin().getPriority().priority;
+	}
+
+	/**
+	 * 
+	 * @return the elements kept, best first
+	 */
+	public List<E> toSortedList() {
+		List<PQEntry<E, Ranked<P>>> entries = new ArrayList<PQEntry<E, Ranked<P>>>(heap.size());
+		for (PQEntry<E, Ranked<P>> e : heap) {
+			entries.add(e);
+		}
+		entries.sort((a, b) -> b.getPriority().compareTo(a.getPriority()));
+		List<E> ans = new ArrayList<E>(entries.size());
+		for (PQEntry<E, Ranked<P>> e : entries) {
+			ans.add(e.getElement());
+		}
+		return ans;
+	}
+
+	/**
+	 * Iterates over the elements kept, best first.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return toSortedList().iterator();
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(toSortedList(), Spliterator.ORDERED);
+	}
+
+	/**
+	 * A Collector that keeps the k elements with the largest priorities,
+	 * usable with parallel streams.
+	 * @param k how many elements to keep
+	 * @param priority gives the priority of each element
+	 * @return the k best elements, best first
+	 */
+	public static <E, P extends Comparable<P>> Collector<E, ?, List<E>> largest(int k, Function<? super E, ? extends P> priority) {
+		return collector(k, true, priority);
+	}
+
+	/**
+	 * Like largest, but keeps the k elements with the smallest priorities.
+	 */
+	public static <E, P extends Comparable<P>> Collector<E, ?, List<E>> smallest(int k, Function<? super E, ? extends P> priority) {
+		return collector(k, false, priority);
+	}
+
+	private static <E, P extends Comparable<P>> Collector<E, BoundedTopK<E,P>, List<E>> collector(
+			int k, boolean largest, Function<? super E, ? extends P> priority) {
+		return Collector.of(
+				() -> new BoundedTopK<E,P>(k, largest),
+				(t, e) -> t.offer(e, priority.apply(e)),
+				(a, b) -> { a.offerAll(b); return a; },
+				BoundedTopK::toSortedList
+				);
+	}
+
+	public String toString() {
+		return "Top " + k + (largest ? " largest" : " smallest") + ": " + toSortedList();
+	}
+
+}
@@ -0,0 +1,14 @@
+package heaps;
+
+/**
+ * TopKSelect using BoundedTopK, which boxes each value offered
+ * and keeps the best in a MinHeap.
+ *
+ */
+public class BoxedTopKSelect extends TopKSelect {
+
+	public BoxedTopKSelect() {
+		super(false);
+	}
+
+}
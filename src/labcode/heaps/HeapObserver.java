@@ -0,0 +1,39 @@
+package heaps;
+
+/**
+ * Told about each change MinHeap makes to its storage, for tools that
+ * follow a heap as it works (such as animations of its operations),
+ * and about each operation once it has finished (for metrics).
+ * When called, the heap storage already shows the change.
+ *
+ */
+public interface HeapObserver {
+
+	/**
+	 * Operations that change the heap;  updates are split by the way
+	 * the Entry moved.
+	 */
+	enum Operation {
+		INSERT, EXTRACT_MIN, REPLACE_MIN, REMOVE, UPDATE_UP, UPDATE_DOWN, UPDATE_UNCHANGED
+	}
+
+	/**
+	 * The Entries at indices i and j were swapped.
+	 */
+	default void swapped(int i, int j) {
+	}
+
+	/**
+	 * The slot at index was filled, emptied, or its Entry's priority changed,
+	 * other than by a swap.
+	 */
+	default void changed(int index) {
+	}
+
+	/**
+	 * An operation, and all of the swaps and changes it made, has finished.
+	 */
+	default void finished(Operation op) {
+	}
+
+}
@@ -1,6 +1,7 @@
 package heaps;
 
 import timing.Algorithm;
+import timing.NoOpTicker;
 import timing.Ticker;
 
 /**
@@ -14,15 +15,24 @@ public class HeapSort implements Algorithm<Integer[],Integer[]> {
 	private Integer[] originalArray, sortedArray;
 	private MinHeap<Integer, Integer> heap;
 	private Ticker ticker;
+	private final boolean instrumented;
 	
 	public HeapSort() {
-		
+		this(true);
+	}
+
+	/**
+	 * @param instrumented if false, the supplied Ticker is ignored and
+	 *        the heap runs with a NoOpTicker instead
+	 */
+	protected HeapSort(boolean instrumented) {
+		this.instrumented = instrumented;
 	}
 
 	@Override
 	public void reset(Ticker ticker) {
-		this.ticker = ticker;
-		this.heap = new MinHeap<Integer, Integer>(originalArray.length, ticker);
+		this.ticker = instrumented ? ticker : NoOpTicker.instance;
+		this.heap = new MinHeap<Integer, Integer>(originalArray.length, this.ticker);
 		this.sortedArray = new Integer[originalArray.length];
 	}
 
@@ -0,0 +1,306 @@
+package heaps;
+
+import java.util.Comparator;
+
+import timing.NoOpTicker;
+import timing.Ticker;
+
+/**
+ * Heapsort performed within the array being sorted, with no MinHeap,
+ * no PQEntry objects and no second array.  The array itself is treated
+ * as a binary max-heap:  it is heapified, and then the maximum is
+ * repeatedly swapped to the end of the shrinking heap.
+ * 
+ * The bottomUpSort variants use Wegener's bottom-up sift-down, which
+ * makes about half as many comparisons as the standard one, since an
+ * element moved to the root usually belongs near the bottom again.
+ *
+ */
+public class InPlaceHeapSort {
+
+	public static void sort(int[] a) {
+		sort(a, NoOpTicker.instance);
+	}
+
+	public static void sort(long[] a) {
+		sort(a, NoOpTicker.instance);
+	}
+
+	public static <T> void sort(T[] a, Comparator<? super T> cmp) {
+		sort(a, cmp, NoOpTicker.instance);
+	}
+
+	public static void bottomUpSort(int[] a) {
+		bottomUpSort(a, NoOpTicker.instance);
+	}
+
+	public static void bottomUpSort(long[] a) {
+		bottomUpSort(a, NoOpTicker.instance);
+	}
+
+	public static <T> void bottomUpSort(T[] a, Comparator<? super T> cmp) {
+		bottomUpSort(a, cmp, NoOpTicker.instance);
+	}
+
+	/**
+	 * Sort a into ascending order in place using a max-heap.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static void sort(int[] a, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			siftDown(a, i, n, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			int top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			siftDown(a, 0, end, ticker);
+		}
+	}
+
+	/**
+	 * Sort a into ascending order in place using bottom-up heapsort.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static void bottomUpSort(int[] a, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			bottomUpSiftDown(a, i, n, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			int top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			bottomUpSiftDown(a, 0, end, ticker);
+		}
+	}
+
+	private static void siftDown(int[] a, int i, int n, Ticker ticker) {
+		int x = a[i];
+		int child;
+		while ((child = 2*i + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (a[child] < a[child + 1]) 
+					child++;
+			}
+			ticker.tick();
+			if (!(x < a[child]))
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Wegener's sift-down:  follow the larger child all the way to a leaf
+	 * (one comparison per level), climb back up to where x belongs, then
+	 * shift that part of the path up one level.
+	 */
+	private static void bottomUpSiftDown(int[] a, int i, int n, Ticker ticker) {
+		int x = a[i];
+		int j = i;
+		int child;
+		while ((child = 2*j + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (a[child] < a[child + 1]) 
+					child++;
+			}
+			j = child;
+		}
+		while (j > i) {
+			ticker.tick();
+			if (!(a[j] < x))
+				break;
+			j = (j - 1) / 2;
+		}
+		int y = a[j];
+		a[j] = x;
+		while (j > i) {
+			j = (j - 1) / 2;
+			int z = a[j];
+			a[j] = y;
+			y = z;
+		}
+	}
+
+	/**
+	 * Sort a into ascending order in place using a max-heap.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static void sort(long[] a, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			siftDown(a, i, n, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			long top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			siftDown(a, 0, end, ticker);
+		}
+	}
+
+	/**
+	 * Sort a into ascending order in place using bottom-up heapsort.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static void bottomUpSort(long[] a, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			bottomUpSiftDown(a, i, n, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			long top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			bottomUpSiftDown(a, 0, end, ticker);
+		}
+	}
+
+	private static void siftDown(long[] a, int i, int n, Ticker ticker) {
+		long x = a[i];
+		int child;
+		while ((child = 2*i + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (a[child] < a[child + 1]) 
+					child++;
+			}
+			ticker.tick();
+			if (!(x < a[child]))
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Wegener's sift-down:  follow the larger child all the way to a leaf
+	 * (one comparison per level), climb back up to where x belongs, then
+	 * shift that part of the path up one level.
+	 */
+	private static void bottomUpSiftDown(long[] a, int i, int n, Ticker ticker) {
+		long x = a[i];
+		int j = i;
+		int child;
+		while ((child = 2*j + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (a[child] < a[child + 1]) 
+					child++;
+			}
+			j = child;
+		}
+		while (j > i) {
+			ticker.tick();
+			if (!(a[j] < x))
+				break;
+			j = (j - 1) / 2;
+		}
+		long y = a[j];
+		a[j] = x;
+		while (j > i) {
+			j = (j - 1) / 2;
+			long z = a[j];
+			a[j] = y;
+			y = z;
+		}
+	}
+
+	/**
+	 * Sort a into ascending order in place using a max-heap.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static <T> void sort(T[] a, Comparator<? super T> cmp, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			siftDown(a, i, n, cmp, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			T top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			siftDown(a, 0, end, cmp, ticker);
+		}
+	}
+
+	/**
+	 * Sort a into ascending order in place using bottom-up heapsort.
+	 * @param a the array to sort
+	 * @param ticker counts one tick per comparison
+	 */
+	public static <T> void bottomUpSort(T[] a, Comparator<? super T> cmp, Ticker ticker) {
+		int n = a.length;
+		for (int i = n/2 - 1; i >= 0; --i) {
+			bottomUpSiftDown(a, i, n, cmp, ticker);
+		}
+		for (int end = n - 1; end > 0; --end) {
+			T top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			bottomUpSiftDown(a, 0, end, cmp, ticker);
+		}
+	}
+
+	private static <T> void siftDown(T[] a, int i, int n, Comparator<? super T> cmp, Ticker ticker) {
+		T x = a[i];
+		int child;
+		while ((child = 2*i + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (cmp.compare(a[child], a[child + 1]) < 0) 
+					child++;
+			}
+			ticker.tick();
+			if (!(cmp.compare(x, a[child]) < 0))
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Wegener's sift-down:  follow the larger child all the way to a leaf
+	 * (one comparison per level), climb back up to where x belongs, then
+	 * shift that part of the path up one level.
+	 */
+	private static <T> void bottomUpSiftDown(T[] a, int i, int n, Comparator<? super T> cmp, Ticker ticker) {
+		T x = a[i];
+		int j = i;
+		int child;
+		while ((child = 2*j + 1) < n) {
+			if (child + 1 < n) {
+				ticker.tick();
+				if (cmp.compare(a[child], a[child + 1]) < 0) 
+					child++;
+			}
+			j = child;
+		}
+		while (j > i) {
+			ticker.tick();
+			if (!(cmp.compare(a[j], x) < 0))
+				break;
+			j = (j - 1) / 2;
+		}
+		T y = a[j];
+		a[j] = x;
+		while (j > i) {
+			j = (j - 1) / 2;
+			T z = a[j];
+			a[j] = y;
+			y = z;
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package heaps;
+
+import java.util.Arrays;
+
+import timing.Algorithm;
+import timing.Ticker;
+
+/**
+ * Sorts an int[] with Arrays.sort, as a reference point for the heapsorts.
+ * No ticks are counted.
+ *
+ */
+public class IntArraysSort implements Algorithm<int[],int[]> {
+
+	private int[] originalArray, sortedArray;
+
+	@Override
+	public void reset(Ticker ticker) {
+		this.sortedArray = Arrays.copyOf(originalArray, originalArray.length);
+	}
+
+	@Override
+	public void run() {
+		Arrays.sort(sortedArray);
+	}
+
+	@Override
+	public void loadInput(int[] input) {
+		this.originalArray = input;
+	}
+
+	@Override
+	public int[] getResults() {
+		return this.sortedArray;
+	}
+
+	public String toString() {
+		return originalArray == null ? "Arrays.sort" :
+			"Arrays.sort of " + originalArray.length + " ints";
+	}
+
+}
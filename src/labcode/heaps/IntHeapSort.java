@@ -0,0 +1,61 @@
+package heaps;
+
+import java.util.Arrays;
+
+import timing.Algorithm;
+import timing.Ticker;
+
+/**
+ * Sorts an int[] in place with InPlaceHeapSort.
+ * Used to compare against the MinHeap-based HeapSort, which boxes every
+ * value and allocates an Entry per element.  Ticks count comparisons.
+ *
+ */
+public class IntHeapSort implements Algorithm<int[],int[]> {
+
+	private int[] originalArray, sortedArray;
+	private Ticker ticker;
+	private final boolean bottomUp;
+
+	public IntHeapSort() {
+		this(false);
+	}
+
+	/**
+	 * @param bottomUp whether to use Wegener's bottom-up sift-down
+	 */
+	protected IntHeapSort(boolean bottomUp) {
+		this.bottomUp = bottomUp;
+	}
+
+	@Override
+	public void reset(Ticker ticker) {
+		this.ticker = ticker;
+		this.sortedArray = Arrays.copyOf(originalArray, originalArray.length);
+	}
+
+	@Override
+	public void run() {
+		if (bottomUp)
+			InPlaceHeapSort.bottomUpSort(sortedArray, ticker);
+		else
+			InPlaceHeapSort.sort(sortedArray, ticker);
+	}
+
+	@Override
+	public void loadInput(int[] input) {
+		this.originalArray = input;
+	}
+
+	@Override
+	public int[] getResults() {
+		return this.sortedArray;
+	}
+
+	public String toString() {
+		String name = bottomUp ? "Bottom-up in-place heapsort" : "In-place heapsort";
+		return originalArray == null ? name :
+			name + " of " + originalArray.length + " ints";
+	}
+
+}
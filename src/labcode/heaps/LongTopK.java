@@ -0,0 +1,141 @@
+package heaps;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A primitive specialization of BoundedTopK for long values, which keeps
+ * its heap in a long[] and allocates nothing per element.
+ * 
+ * To keep the smallest values, each value is stored complemented (~x),
+ * which reverses the order, so the same min-heap code serves both ends.
+ *
+ */
+public class LongTopK {
+
+	private final long[] heap;
+	private int size;
+	private final boolean largest;
+
+	/**
+	 * 
+	 * @param k how many values to keep
+	 * @param largest true to keep the largest values, false for the smallest
+	 */
+	public LongTopK(int k, boolean largest) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative, but was " + k);
+		}
+		this.heap    = new long[k];
+		this.size    = 0;
+		this.largest = largest;
+	}
+
+	/**
+	 * Consider one more value.
+	 * @param x the value
+	 * @return true if x is now among those kept
+	 */
+	public boolean offer(long x) {
+		long v = largest ? x : ~x;
+		if (size < heap.length) {
+			int i = size++;
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (heap[parent] <= v)
+					break;
+				heap[i] = heap[parent];
+				i = parent;
+			}
+			heap[i] = v;
+			return true;
+		}
+		if (size == 0 || v <= heap[0]) {
+			return false;
+		}
+		siftDown(v);
+		return true;
+	}
+
+	/**
+	 * Replace the root with v and restore the heap with one sift-down.
+	 */
+	private void siftDown(long v) {
+		int i = 0;
+		int child;
+		while ((child = 2*i + 1) < size) {
+			if (child + 1 < size && heap[child + 1] < heap[child])
+				child++;
+			if (v <= heap[child])
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = v;
+	}
+
+	public void offerAll(long[] values) {
+		for (long x : values) {
+			offer(x);
+		}
+	}
+
+	public void offerAll(Spliterator.OfLong source) {
+		source.forEachRemaining((LongConsumer) this::offer);
+	}
+
+	/**
+	 * Offer everything kept by other, which must keep the same end (largest or smallest).
+	 */
+	public void offerAll(LongTopK other) {
+		for (int i=0; i < other.size; ++i) {
+			offer(other.largest ? other.heap[i] : ~other.heap[i]);
+		}
+	}
+
+	/**
+	 * Keep the k best values of a stream, which may be parallel.
+	 * @param values the stream
+	 * @param k how many values to keep
+	 * @param largest true to keep the largest values, false for the smallest
+	 * @return
+	 */
+	public static LongTopK of(LongStream values, int k, boolean largest) {
+		return values.collect(() -> new LongTopK(k, largest), LongTopK::offer, LongTopK::offerAll);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isFull() {
+		return size == heap.length;
+	}
+
+	/**
+	 * 
+	 * @return the values kept, best first
+	 */
+	public long[] toSortedArray() {
+		long[] ans = Arrays.copyOf(heap, size);
+		Arrays.sort(ans);
+		for (int i=0, j=size-1; i < j; ++i, --j) {
+			long x = ans[i];
+			ans[i] = ans[j];
+			ans[j] = x;
+		}
+		if (!largest) {
+			for (int i=0; i < size; ++i) {
+				ans[i] = ~ans[i];
+			}
+		}
+		return ans;
+	}
+
+	public String toString() {
+		return "Top " + heap.length + (largest ? " largest" : " smallest") + ": " + Arrays.toString(toSortedArray());
+	}
+
+}
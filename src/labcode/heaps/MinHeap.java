@@ -1,11 +1,23 @@
 package heaps;
 
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.swing.JOptionPane;
+import heaps.util.GrowthPolicy;
+import heaps.util.HeapSpliterator;
+import heaps.util.HeapStorage;
 import heaps.util.HeapToStrings;
+import heaps.util.SortedHeapIterator;
 import heaps.validate.MinHeapValidator;
 import timing.Ticker;
 
@@ -14,6 +26,7 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 
 	private static final int INVALID_POSITION = -1;    // Sentinel value for an invalid position in heap storage
+	private static final int RECYCLED_POSITION = -2;   // Sentinel value for an Entry waiting in the pool for reuse
 
 
 	/**
@@ -30,9 +43,10 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 	private class HeapPQEntry implements PQEntry<E, P> {
 		// DONE: Do not modify
-		private final E element;  // Data Element
+		private E element;        // Data Element
 		private P priority;       // Priority
 		private int position;     // Current index in heap storage
+		private int generation;   // Times this Entry has been recycled
 
 		/**
 		 * Construct a new Entry element 
@@ -67,11 +81,21 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 		public void updatePriority(P newPriority) {
 			// DONE: Do not modify
+			if (position == RECYCLED_POSITION) {
+				throw new IllegalStateException("Entry was recycled and may no longer be used");
+			}
 			// Change the priority
 			this.priority = newPriority; 
 			// Ask the MinHeap to fix up the heap as necessary 
 			//  to restore the heap ordering property, in light of the updated priority.
+			int before = position;
 			MinHeap.this.repairHeapAtEntry(this);
+			// An Entry no longer in the heap was not moved, so there is nothing to report
+			if (observer != null && before != INVALID_POSITION) {
+				observer.finished(position < before ? HeapObserver.Operation.UPDATE_UP
+						: position > before ? HeapObserver.Operation.UPDATE_DOWN
+						: HeapObserver.Operation.UPDATE_UNCHANGED);
+			}
 		}
 
 
@@ -80,6 +104,10 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 			// DONE: Do not modify (We really really mean that.  The unit tests depend on this!)
 			return "(E=" + element + ", P=" + priority + ")";
 		}
+
+		private MinHeap<E, P> heap() {
+			return MinHeap.this;
+		}
 	}
 
 
@@ -89,12 +117,20 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 	// Heap storage: an array of Entry objects
 	
-	private final ArrayList<HeapPQEntry> entries;
+	private final HeapStorage<HeapPQEntry> entries;
 
 	// Bookkeeping: not necessary for functionality
 
 	private final Ticker ticker;
 
+	// Entries returned by recycle(), ready for reuse; null unless pooling was requested
+
+	private final ArrayList<HeapPQEntry> pool;
+
+	// Told about each change to heap storage; null if nothing is watching
+
+	private HeapObserver observer;
+
 
 	// DONE: Do not add more instance variables
 
@@ -105,7 +141,7 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 	public Iterator<PQEntry<E, P>> iterator() {
 		// DONE: Do not modify (We really really mean that.  The unit tests depend on this!)		
-		ArrayList<? extends PQEntry<E,P>> alsoEntries = this.entries;
+		HeapStorage<? extends PQEntry<E,P>> alsoEntries = this.entries;
 		return (Iterator<PQEntry<E, P>>)alsoEntries.iterator();
 	}
 
@@ -119,11 +155,11 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 
 	public String toString() {
 		// DONE: Do not modify (We really really mean that.  The unit tests depend on this!)
-		String s = "";
+		StringBuilder s = new StringBuilder();
 		for(PQEntry<?,?> e:entries) {
-			s+=e + " ";
+			s.append(e).append(' ');
 		}
-		return s.trim();  // Remove the trailing space
+		return s.toString().trim();  // Remove the trailing space
 	}
 
 
@@ -136,8 +172,42 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 	@SuppressWarnings("unchecked")
 	public MinHeap(int maxSize, Ticker ticker) {
 		// DONE: Do not modify
-		this.entries = new ArrayList<HeapPQEntry>(maxSize);
+		this(maxSize, ticker, false);
+	}	
+
+	/**
+	 * Create a min heap with given capacity and bookkeeping ticker,
+	 * optionally pooling Entries.  With pooling, Entries passed to
+	 * recycle() are reused by later inserts instead of allocating new ones.
+	 * 
+	 * @param maxSize max anticipated size of heap
+	 * @param ticker bookkeeping operations accumulator
+	 * @param pooled whether recycle() may be used
+	 */
+	public MinHeap(int maxSize, Ticker ticker, boolean pooled) {
+		this(maxSize, ticker, pooled, GrowthPolicy.ONE_AND_HALF, false);
+	}	
+
+	/**
+	 * Create a min heap with given capacity, bookkeeping ticker and
+	 * storage growth policy.  With autoShrink, extracting down to a
+	 * quarter of the capacity halves the storage, never going below maxSize;
+	 * otherwise storage only shrinks through trimToSize().
+	 * 
+	 * @param maxSize max anticipated size of heap
+	 * @param ticker bookkeeping operations accumulator
+	 * @param growth how the storage grows when full
+	 * @param autoShrink whether extracting shrinks the storage
+	 */
+	public MinHeap(int maxSize, Ticker ticker, GrowthPolicy growth, boolean autoShrink) {
+		this(maxSize, ticker, false, growth, autoShrink);
+	}	
+
+	private MinHeap(int maxSize, Ticker ticker, boolean pooled, GrowthPolicy growth, boolean autoShrink) {
+		this.entries = growth.newStorage(maxSize);
+		this.entries.setAutoShrink(autoShrink);
 		this.ticker = ticker;
+		this.pool = pooled ? new ArrayList<HeapPQEntry>() : null;
 	}	
 
 	/**
@@ -145,8 +215,82 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 	 */
 	public MinHeap() {
 		// DONE: Do not modify
-		this.entries = new ArrayList<HeapPQEntry>();
+		this.entries = GrowthPolicy.ONE_AND_HALF.newStorage(0);
 		this.ticker = new Ticker();
+		this.pool = null;
+	}
+
+	/**
+	 * 
+	 * @return number of Entries the storage holds without growing
+	 */
+	public int capacity() {
+		return entries.capacity();
+	}
+
+	/**
+	 * The same as size(), for tools that inspect the heap from outside
+	 *  the code being measured, possibly from another thread.
+	 *  Not counted by the ticker.
+	 *
+	 * @return number of Entries in the heap
+	 */
+	public int uncountedSize() {
+		return entries.size();
+	}
+
+	/**
+	 * Release storage beyond the current size, for example once a
+	 *  burst of inserts has been drained.
+	 */
+	public void trimToSize() {
+		entries.trimToSize();
+	}
+
+	/**
+	 * 
+	 * @return how many times the storage has grown or shrunk
+	 */
+	public long getResizeCount() {
+		return entries.getResizeCount();
+	}
+
+	/**
+	 * 
+	 * @return total time spent growing and shrinking the storage
+	 */
+	public Duration getResizeTime() {
+		return entries.getResizeTime();
+	}
+
+	/**
+	 * 
+	 * @return the longest single pause spent growing or shrinking the storage
+	 */
+	public Duration getLongestResize() {
+		return entries.getLongestResize();
+	}
+
+	/**
+	 * Have an observer told about each change to heap storage.
+	 *  Not counted by the ticker.
+	 *
+	 * @param observer the observer, or null for none
+	 */
+	public void setObserver(HeapObserver observer) {
+		this.observer = observer;
+	}
+
+	private void changed(int index) {
+		if (observer != null) {
+			observer.changed(index);
+		}
+	}
+
+	private void finished(HeapObserver.Operation op) {
+		if (observer != null) {
+			observer.finished(op);
+		}
 	}
 
 	/**
@@ -166,6 +310,9 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		entries.set(j, temp1st);
 		entries.set(i, temp2nd);
 		ticker.tick(6);
+		if (observer != null) {
+			observer.swapped(i, j);
+		}
 	}
 
 @Override
@@ -197,6 +344,10 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		// Heap should be in a consistent state after executing this method.
 		int beginning = entry.position;
 		ticker.tick();
+		if (beginning == INVALID_POSITION) {
+			return;  // no longer in the heap, so there is nothing to repair
+		}
+		changed(beginning);
 		bubbleDown(beginning);
 		bubbleUp(beginning);
 	}
@@ -205,10 +356,11 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 	@Override
 	public PQEntry<E, P> insert(E thing, P priority) {
 		// TODO
-		HeapPQEntry element =new HeapPQEntry(thing, priority);
+		HeapPQEntry element =newEntry(thing, priority);
 		element.position =size();
 		entries.add(element) ;
 		repairHeapAtEntry(element) ;
+		finished(HeapObserver.Operation.INSERT);
 		ticker.tick(4) ;
 		return element ;
 	}
@@ -226,6 +378,9 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		else if(1 == size() ) {
 			HeapPQEntry rtNode = entries.get(0);
 			entries.remove(0);
+			rtNode.position = INVALID_POSITION;
+			changed(0);
+			finished(HeapObserver.Operation.EXTRACT_MIN);
 			ticker.tick(3);
 			return rtNode;
 		} 
@@ -234,12 +389,151 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 			HeapPQEntry rtNode = entries.get(0);
 			swap(rtNode.position, size() - 1);
 			entries.remove(-1 + size());
+			rtNode.position = INVALID_POSITION;
+			changed(entries.size());
 			bubbleDown(0);
+			finished(HeapObserver.Operation.EXTRACT_MIN);
 			ticker.tick(5);
 			return rtNode;
 		}
 	}
 
+	/**
+	 * Extract the minimum Entry and insert a new one, as extractMin()
+	 *  followed by insert() would, but with a single sift-down: the new
+	 *  Entry takes the old minimum's slot, so the heap storage never
+	 *  changes size.
+	 *
+	 * @param thing element of the Entry to insert
+	 * @param priority priority of the Entry to insert
+	 * @return the Entry that was the minimum, or null if the heap was empty
+	 */
+	public PQEntry<E, P> replaceMin(E thing, P priority) {
+		ticker.tick();
+		if (isEmpty()) {
+			insert(thing, priority);
+			return null;
+		}
+		return replaceRoot(newEntry(thing, priority));
+	}
+
+	/**
+	 * Insert a new Entry and then extract the minimum, as insert()
+	 *  followed by extractMin() would.  If the new Entry would itself be the
+	 *  minimum it is returned without ever entering the heap; otherwise it
+	 *  takes the old minimum's slot and is sifted down once.
+	 *
+	 * @param thing element of the Entry to insert
+	 * @param priority priority of the Entry to insert
+	 * @return the minimum Entry, which may be the one just created
+	 */
+	public PQEntry<E, P> insertThenExtract(E thing, P priority) {
+		HeapPQEntry element = newEntry(thing, priority);
+		ticker.tick(2);
+		if (isEmpty() || priority.compareTo(entries.get(0).getPriority()) <= 0) {
+			return element;
+		}
+		return replaceRoot(element);
+	}
+
+	/**
+	 * A new Entry, taken from the pool if one is available.
+	 *
+	 * @param thing element data
+	 * @param priority priority value
+	 * @return an Entry that is not in the heap
+	 */
+	private HeapPQEntry newEntry(E thing, P priority) {
+		if (pool == null || pool.isEmpty()) {
+			return new HeapPQEntry(thing, priority);
+		}
+		HeapPQEntry reused = pool.remove(pool.size() - 1);
+		reused.element = thing;
+		reused.priority = priority;
+		reused.position = INVALID_POSITION;
+		ticker.tick(4);
+		return reused;
+	}
+
+	/**
+	 * Give back an Entry that has left the heap (through extractMin, remove,
+	 *  replaceMin or insertThenExtract), so that a later insert can reuse it.
+	 *  Only allowed on a heap created with pooling.
+	 *  
+	 * Once recycled, the Entry must not be used: updatePriority on it fails
+	 *  until it is reused, and after that it belongs to the new insert.
+	 *  Holders that might outlive the Entry should keep its stamp() and
+	 *  update through updatePriority(entry, stamp, newPriority), which 
+	 *  detects reuse.
+	 *
+	 * @param entry Entry no longer in this heap
+	 */
+	public void recycle(PQEntry<E, P> entry) {
+		if (pool == null) {
+			throw new IllegalStateException("This heap was not created with Entry pooling");
+		}
+		HeapPQEntry heapEntry = (HeapPQEntry)entry;
+		if (heapEntry.heap() != this) {
+			throw new IllegalArgumentException("Entry " + entry + " does not belong to this heap");
+		}
+		if (heapEntry.position == RECYCLED_POSITION) {
+			throw new IllegalStateException("Entry was already recycled");
+		}
+		if (heapEntry.position != INVALID_POSITION) {
+			throw new IllegalArgumentException("Entry " + entry + " is still in the heap");
+		}
+		heapEntry.element = null;
+		heapEntry.priority = null;
+		heapEntry.position = RECYCLED_POSITION;
+		heapEntry.generation++;
+		pool.add(heapEntry);
+		ticker.tick(5);
+	}
+
+	/**
+	 * The generation of an Entry: it changes each time the Entry is recycled.
+	 *
+	 * @param entry an Entry from this heap
+	 * @return stamp to pass to updatePriority(entry, stamp, newPriority)
+	 */
+	public int stamp(PQEntry<E, P> entry) {
+		return ((HeapPQEntry)entry).generation;
+	}
+
+	/**
+	 * Update an Entry's priority, first checking that it has not been
+	 *  recycled since its stamp was taken.
+	 *
+	 * @param entry Entry to update
+	 * @param stamp result of stamp(entry) taken when the Entry was obtained
+	 * @param newPriority the new priority
+	 */
+	public void updatePriority(PQEntry<E, P> entry, int stamp, P newPriority) {
+		if (((HeapPQEntry)entry).generation != stamp) {
+			throw new IllegalStateException("Entry was recycled after its stamp was taken");
+		}
+		entry.updatePriority(newPriority);
+	}
+
+	/**
+	 * Put the given Entry at the root in place of the current minimum,
+	 *  and restore the heap ordering property.
+	 *
+	 * @param element Entry, not yet in the heap, to put at the root
+	 * @return the Entry that was at the root
+	 */
+	private HeapPQEntry replaceRoot(HeapPQEntry element) {
+		HeapPQEntry rtNode = entries.get(0);
+		element.position = 0;
+		entries.set(0, element);
+		rtNode.position = INVALID_POSITION;
+		changed(0);
+		bubbleDown(0);
+		finished(HeapObserver.Operation.REPLACE_MIN);
+		ticker.tick(4);
+		return rtNode;
+	}
+
 	/**
 	 * Remove Entry stored at the specified index from the heap,
 	 *  and repair the heap as necessary.
@@ -252,6 +546,18 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		// NOTE: implementing this method is optional.
 		//       Full credit may be earned for the assignment
 		//       without implementing this method.
+		HeapPQEntry gone = entries.get(index);
+		int last = size() - 1;
+		if (index != last) {
+			swap(index, last);
+		}
+		entries.remove(last);
+		gone.position = INVALID_POSITION;
+		changed(last);
+		ticker.tick(4);
+		if (index < size()) {
+			repairHeapAtEntry(entries.get(index));
+		}
 	}
 
 	@Override
@@ -261,6 +567,185 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		return isEmpty() ? null : entries.get(0);
 	}
 
+	/**
+	 * The Entry at a given index of heap storage, so that validators
+	 *  can inspect a single path in O(log n) without copying the heap.
+	 *  Not counted by the ticker.
+	 *
+	 * @param index index into heap storage
+	 * @return the Entry there, or null if index is outside the heap
+	 */
+	public PQEntry<E, P> entryAt(int index) {
+		return index < 0 || index >= entries.size() ? null : entries.get(index);
+	}
+
+	/**
+	 * 
+	 * @return number of changes to heap storage so far, including swaps
+	 */
+	public int getModCount() {
+		return entries.getModCount();
+	}
+
+	/**
+	 * Sized and evenly splittable, in storage order.  Fails fast if
+	 *  the heap changes during traversal.  Not counted by the ticker.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Spliterator<PQEntry<E, P>> spliterator() {
+		HeapStorage<? extends PQEntry<E,P>> alsoEntries = this.entries;
+		return new HeapSpliterator<PQEntry<E, P>>((HeapStorage<PQEntry<E, P>>) alsoEntries);
+	}
+
+	/**
+	 * 
+	 * @return the entries in storage order
+	 */
+	public Stream<PQEntry<E, P>> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * For aggregates over large heaps, such as counting the entries below
+	 *  a threshold.
+	 * @return the entries in storage order, possibly in parallel
+	 */
+	public Stream<PQEntry<E, P>> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * The entries from smallest priority up, without changing the heap.
+	 *  The next entry is found in O(log k) after k have been visited,
+	 *  from a frontier of the children of the entries visited so far.
+	 *  Not counted by the ticker.
+	 * @return an iterator in priority order, failing fast if the heap changes
+	 */
+	public Iterator<PQEntry<E, P>> orderedIterator() {
+		return new SortedHeapIterator<E, P>(this);
+	}
+
+	/**
+	 * The k entries that extractMin would return next, without
+	 *  extracting them, in O(k log k) however large the heap is.
+	 *  Not counted by the ticker.
+	 * @param k number of entries wanted
+	 * @return the smallest min(k, size) entries, smallest first
+	 */
+	public List<PQEntry<E, P>> peekSmallest(int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative, but was " + k);
+		}
+		int n = Math.min(k, entries.size());
+		List<PQEntry<E, P>> ans = new ArrayList<PQEntry<E, P>>(n);
+		SortedHeapIterator<E, P> it = new SortedHeapIterator<E, P>(this, n);
+		while (ans.size() < n) {
+			ans.add(it.next());
+		}
+		return ans;
+	}
+
+	/**
+	 * The entries from smallest priority up, found lazily without
+	 *  changing the heap, so taking the first k costs O(k log k).
+	 *  Not counted by the ticker.
+	 * @return the entries in priority order
+	 */
+	public Stream<PQEntry<E, P>> sortedStream() {
+		Iterator<PQEntry<E, P>> it = orderedIterator();
+		return StreamSupport.stream(Spliterators.spliterator(it, entries.size(),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Visit every entry with priority at most bound, in no particular order,
+	 *  without changing the heap.  A subtree whose root is above the bound
+	 *  holds nothing to visit, so visiting k entries takes O(k).
+	 *  Not counted by the ticker.
+	 * @param bound largest priority to visit
+	 * @param action is given each entry found; it must not change the heap
+	 */
+	public void forEachAtMost(P bound, Consumer<? super PQEntry<E, P>> action) {
+		int expectedModCount = entries.getModCount();
+		forEachAtMost(0, bound, action);
+		if (entries.getModCount() != expectedModCount) {
+			throw new ConcurrentModificationException("Heap changed while it was being traversed");
+		}
+	}
+
+	private void forEachAtMost(int index, P bound, Consumer<? super HeapPQEntry> action) {
+		if (index >= entries.size()) {
+			return;
+		}
+		HeapPQEntry e = entries.get(index);
+		if (e.getPriority().compareTo(bound) > 0) {
+			return;
+		}
+		action.accept(e);
+		forEachAtMost(2*index + 1, bound, action);
+		forEachAtMost(2*index + 2, bound, action);
+	}
+
+	/**
+	 * Extract every entry with priority at most bound, such as every
+	 *  event due by now.  When only a few entries are extracted, each is
+	 *  taken by extractMin;  when enough are extracted that their sifts
+	 *  would cost more than the whole heap, the entries left are instead
+	 *  packed together and the heap rebuilt bottom-up in O(n).
+	 * @param bound largest priority to extract
+	 * @param action is given each entry extracted, smallest first, once all are out of the heap
+	 * @return the number of entries extracted
+	 */
+	public int extractAllAtMost(P bound, Consumer<? super PQEntry<E, P>> action) {
+		ticker.tick();
+		List<HeapPQEntry> found = new ArrayList<HeapPQEntry>();
+		forEachAtMost(0, bound, found::add);
+		int n = entries.size();
+		int k = found.size();
+		int height = 32 - Integer.numberOfLeadingZeros(n);
+		if ((long) k * height < n) {
+			found.clear();
+			for (int i=0; i < k; ++i) {
+				found.add(entries.get(0));
+				extractMin();
+			}
+		}
+		else {
+			for (HeapPQEntry e : found) {
+				e.position = INVALID_POSITION;
+			}
+			int kept = 0;
+			for (int i=0; i < n; ++i) {
+				HeapPQEntry e = entries.get(i);
+				if (e.position != INVALID_POSITION) {
+					if (kept != i) {
+						entries.set(kept, e);
+						e.position = kept;
+						changed(kept);
+					}
+					kept++;
+				}
+			}
+			while (entries.size() > kept) {
+				entries.remove(entries.size() - 1);
+			}
+			for (int i = kept/2 - 1; i >= 0; --i) {
+				bubbleDown(i);
+			}
+			for (int i=kept; i < n; ++i) {
+				changed(i);
+				finished(HeapObserver.Operation.EXTRACT_MIN);
+			}
+			found.sort((a, b) -> a.getPriority().compareTo(b.getPriority()));
+			ticker.tick(2 * n);
+		}
+		for (HeapPQEntry e : found) {
+			action.accept(e);
+		}
+		return k;
+	}
+
 	/**
 	 * Index of the Entry in heap storage that is the
 	 *  parent of the index passed as a parameter.
@@ -405,7 +890,14 @@ public class MinHeap<E, P extends Comparable<P>> implements MinPriorityQueue<E,P
 		// NOTE: implementing this method is optional.
 		//       Full credit may be earned for the assignment
 		//       without implementing this method.
-		return false;
+		int index = heapEntry.position;
+		ticker.tick(2);
+		if (index < 0 || index >= size() || entries.get(index) != heapEntry) {
+			return false;
+		}
+		removeAtIndex(index);
+		finished(HeapObserver.Operation.REMOVE);
+		return true;
 	}
 
 	/**
@@ -0,0 +1,176 @@
+package heaps;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import timing.NoOpTicker;
+
+/**
+ * Heapsort and partial sort of an int[] using several cores.
+ * 
+ * The array is split into shards that are processed in parallel on a
+ * ForkJoinPool.  The shards are then merged through a small tournament:
+ * a MinHeap holding one entry per shard, whose priority is that shard's
+ * smallest remaining value.
+ * 
+ * For a full sort each shard is heapsorted.  For the k smallest values
+ * each shard is only heapified, which is linear, and the merge stops
+ * after k extractions.
+ *
+ */
+public class ParallelHeapSort {
+
+	private final static int MIN_SHARD = 1 << 13;  // smaller shards cost more to schedule than to sort
+
+	/**
+	 * A shard of the input, consumed in ascending order.
+	 */
+	private static class Shard {
+		private final int[] values;
+		private final boolean sorted;  // sorted ascending, or a min-heap
+		private int size;
+		private int next;
+
+		private Shard(int[] values, boolean sorted) {
+			this.values = values;
+			this.sorted = sorted;
+			this.size   = values.length;
+			this.next   = 0;
+		}
+
+		private void prepare() {
+			if (sorted) {
+				InPlaceHeapSort.bottomUpSort(values);
+			}
+			else {
+				for (int i = size/2 - 1; i >= 0; --i) {
+					siftDown(i);
+				}
+			}
+		}
+
+		private boolean isEmpty() {
+			return sorted ? next == size : size == 0;
+		}
+
+		private int peek() {
+			return sorted ? values[next] : values[0];
+		}
+
+		private int poll() {
+			if (sorted) {
+				return values[next++];
+			}
+			int ans = values[0];
+			values[0] = values[--size];
+			siftDown(0);
+			return ans;
+		}
+
+		private void siftDown(int i) {
+			int x = values[i];
+			int child;
+			while ((child = 2*i + 1) < size) {
+				if (child + 1 < size && values[child + 1] < values[child])
+					child++;
+				if (x <= values[child])
+					break;
+				values[i] = values[child];
+				i = child;
+			}
+			values[i] = x;
+		}
+	}
+
+	/**
+	 * Prepares shards lo..hi-1, splitting the range across the pool.
+	 */
+	private static class PrepareShards extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Shard[] shards;
+		private final int lo, hi;
+
+		private PrepareShards(Shard[] shards, int lo, int hi) {
+			this.shards = shards;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo == 1) {
+				shards[lo].prepare();
+			}
+			else {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new PrepareShards(shards, lo, mid), new PrepareShards(shards, mid, hi));
+			}
+		}
+	}
+
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sort a into ascending order.
+	 * @param a the array to sort
+	 * @param pool the threads that sort the shards
+	 */
+	public static void sort(int[] a, ForkJoinPool pool) {
+		Shard[] shards = shard(a, pool, true);
+		merge(shards, a, a.length);
+	}
+
+	public static int[] smallest(int[] a, int k) {
+		return smallest(a, k, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * The k smallest values of a, in ascending order.  a is not changed.
+	 * @param a the values
+	 * @param k how many to return; at most a.length are returned
+	 * @param pool the threads that heapify the shards
+	 * @return
+	 */
+	public static int[] smallest(int[] a, int k, ForkJoinPool pool) {
+		k = Math.max(0, Math.min(k, a.length));
+		int[] ans = new int[k];
+		merge(shard(a, pool, false), ans, k);
+		return ans;
+	}
+
+	private static Shard[] shard(int[] a, ForkJoinPool pool, boolean sorted) {
+		int count = Math.max(1, Math.min(4 * pool.getParallelism(), a.length / MIN_SHARD));
+		Shard[] shards = new Shard[count];
+		for (int i=0; i < count; ++i) {
+			int from = (int) ((long) a.length * i / count);
+			int to   = (int) ((long) a.length * (i+1) / count);
+			shards[i] = new Shard(Arrays.copyOfRange(a, from, to), sorted);
+		}
+		pool.invoke(new PrepareShards(shards, 0, count));
+		return shards;
+	}
+
+	/**
+	 * Run the tournament, writing the first k values in ascending order to out.
+	 */
+	private static void merge(Shard[] shards, int[] out, int k) {
+		MinHeap<Integer,Integer> heads = new MinHeap<Integer,Integer>(shards.length, NoOpTicker.instance);
+		for (int i=0; i < shards.length; ++i) {
+			if (!shards[i].isEmpty())
+				heads.insert(i, shards[i].peek());
+		}
+		for (int j=0; j < k; ++j) {
+			PQEntry<Integer,Integer> head = heads.peekMin();
+			int s = head.getElement();
+			out[j] = shards[s].poll();
+			if (shards[s].isEmpty())
+				heads.extractMin();
+			else
+				head.updatePriority(shards[s].peek());  // the same Entry sifts down; its shard index never changes
+		}
+	}
+
+}
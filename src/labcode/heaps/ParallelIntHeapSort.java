@@ -0,0 +1,56 @@
+package heaps;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import timing.Algorithm;
+import timing.Ticker;
+
+/**
+ * Sorts an int[] with ParallelHeapSort, for timing against the
+ * single-threaded sorts.  No ticks are counted.
+ *
+ */
+public class ParallelIntHeapSort implements Algorithm<int[],int[]> {
+
+	private int[] originalArray, sortedArray;
+	private final ForkJoinPool pool;
+
+	public ParallelIntHeapSort() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool the threads to sort with; its parallelism is the number of cores used
+	 */
+	public ParallelIntHeapSort(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void reset(Ticker ticker) {
+		this.sortedArray = Arrays.copyOf(originalArray, originalArray.length);
+	}
+
+	@Override
+	public void run() {
+		ParallelHeapSort.sort(sortedArray, pool);
+	}
+
+	@Override
+	public void loadInput(int[] input) {
+		this.originalArray = input;
+	}
+
+	@Override
+	public int[] getResults() {
+		return this.sortedArray;
+	}
+
+	public String toString() {
+		String name = "Parallel heapsort on " + pool.getParallelism() + " threads";
+		return originalArray == null ? name :
+			name + " of " + originalArray.length + " ints";
+	}
+
+}
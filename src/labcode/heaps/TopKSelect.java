@@ -0,0 +1,84 @@
+package heaps;
+
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import timing.Algorithm;
+import timing.Ticker;
+import timing.utils.SeededInts;
+
+/**
+ * Finds the 100 largest of a stream of random ints with IntTopK.
+ * The ints are generated as they are consumed, so the stream can be far
+ * larger than memory.  Ticks count the values that had to be kept,
+ * each of which costs a sift; every other value costs one comparison.
+ *
+ */
+public class TopKSelect implements Algorithm<SeededInts,int[]> {
+
+	public final static int K = 100;
+
+	private SeededInts input;
+	private int[] best;
+	private Ticker ticker;
+	private final boolean primitive;
+
+	public TopKSelect() {
+		this(true);
+	}
+
+	/**
+	 * @param primitive whether to use IntTopK, or BoundedTopK over a MinHeap
+	 */
+	protected TopKSelect(boolean primitive) {
+		this.primitive = primitive;
+	}
+
+	@Override
+	public void reset(Ticker ticker) {
+		this.ticker = ticker;
+		this.best   = null;
+	}
+
+	@Override
+	public void run() {
+		PrimitiveIterator.OfInt values = input.iterator();
+		if (primitive) {
+			IntTopK top = new IntTopK(K, true);
+			while (values.hasNext()) {
+				if (top.offer(values.nextInt()))
+					ticker.tick();
+			}
+			best = top.toSortedArray();
+		}
+		else {
+			BoundedTopK<Integer,Integer> top = BoundedTopK.keepLargest(K);
+			while (values.hasNext()) {
+				int x = values.nextInt();
+				if (top.offer(x, x))
+					ticker.tick();
+			}
+			List<Integer> kept = top.toSortedList();
+			best = new int[kept.size()];
+			for (int i=0; i < best.length; ++i) {
+				best[i] = kept.get(i);
+			}
+		}
+	}
+
+	@Override
+	public void loadInput(SeededInts input) {
+		this.input = input;
+	}
+
+	@Override
+	public int[] getResults() {
+		return best;
+	}
+
+	public String toString() {
+		String name = (primitive ? "IntTopK" : "BoundedTopK") + " k=" + K;
+		return input == null ? name : name + " of " + input.length() + " ints";
+	}
+
+}
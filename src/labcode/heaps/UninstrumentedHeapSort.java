@@ -0,0 +1,19 @@
+package heaps;
+
+/**
+ * HeapSort with all bookkeeping disabled:  the MinHeap is given a
+ * NoOpTicker, so the reported ticks are always 0.
+ * Timing this against HeapSort isolates the cost of the ticks themselves.
+ *
+ */
+public class UninstrumentedHeapSort extends HeapSort {
+
+	public UninstrumentedHeapSort() {
+		super(false);
+	}
+
+	public String toString() {
+		return "Uninstrumented " + super.toString();
+	}
+
+}
@@ -0,0 +1,252 @@
+package heaps.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import heaps.HeapObserver;
+import heaps.MinHeap;
+
+/**
+ * Counts what a MinHeap does, as its HeapObserver:  its size, how far
+ * Entries sift on insert and extractMin, which way updatePriority moves
+ * them, and how many swaps each operation takes.  A rising insert sift
+ * depth, for example, shows priorities arriving in decreasing order.
+ *
+ * Swaps are tallied in plain fields while an operation runs, and the
+ * counts are updated atomically once it has finished, so counting costs
+ * a few atomic adds per operation.  Other threads, such as JMX, may read
+ * the counts at any time, and reset() from another thread is never
+ * undone by an update in progress.
+ *
+ */
+public class HeapMetrics implements HeapObserver, HeapMetricsMBean {
+
+	// Slots in counts:  one count per Operation, then these
+	private static final int OPS = Operation.values().length;
+	private static final int SIZE = OPS;
+	private static final int SWAPS = OPS + 1;
+	private static final int INSERT_DEPTH = OPS + 2;
+	private static final int INSERT_MAX = OPS + 3;
+	private static final int EXTRACT_DEPTH = OPS + 4;
+	private static final int EXTRACT_MAX = OPS + 5;
+
+	private final MinHeap<?,?> heap;
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(OPS + 6);
+
+	// Swaps since the last change to a slot, which is when sifting starts
+	private int siftDepth;
+	// Swaps since the current operation started
+	private int opSwaps;
+
+	private ObjectName registered;
+
+	/**
+	 * Start counting the operations of a heap, from its current size.
+	 * This replaces any other HeapObserver of the heap.
+	 * 
+	 * @param heap the heap to measure
+	 * @param name name to report the heap by
+	 */
+	public HeapMetrics(MinHeap<?,?> heap, String name) {
+		this.heap = heap;
+		this.name = name;
+		counts.set(SIZE, heap.uncountedSize());
+		heap.setObserver(this);
+	}
+
+	/**
+	 * Stop counting;  the counts so far can still be read.
+	 */
+	public void detach() {
+		heap.setObserver(null);
+	}
+
+	private void add(int slot, long n) {
+		if (n != 0) {
+			counts.getAndAdd(slot, n);
+		}
+	}
+
+	private void max(int slot, long n) {
+		counts.accumulateAndGet(slot, n, Math::max);
+	}
+
+	@Override
+	public void swapped(int i, int j) {
+		siftDepth++;
+		opSwaps++;
+	}
+
+	@Override
+	public void changed(int index) {
+		siftDepth = 0;
+	}
+
+	@Override
+	public void finished(Operation op) {
+		add(op.ordinal(), 1);
+		add(SWAPS, opSwaps);
+		switch (op) {
+		case INSERT:
+			add(SIZE, 1);
+			add(INSERT_DEPTH, siftDepth);
+			max(INSERT_MAX, siftDepth);
+			break;
+		case EXTRACT_MIN:
+			add(SIZE, -1);
+			add(EXTRACT_DEPTH, siftDepth);
+			max(EXTRACT_MAX, siftDepth);
+			break;
+		case REMOVE:
+			add(SIZE, -1);
+			break;
+		default:
+			break;
+		}
+		siftDepth = 0;
+		opSwaps = 0;
+	}
+
+	/**
+	 * Make these metrics readable through JMX, as heaps:type=MinHeap,name=...
+	 * @throws JMException if the name is taken or not valid
+	 */
+	public void register() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName("heaps", "type", "MinHeap");
+		objectName = new ObjectName(objectName + ",name=" + ObjectName.quote(name));
+		server.registerMBean(this, objectName);
+		registered = objectName;
+	}
+
+	public void unregister() throws JMException {
+		if (registered != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+			registered = null;
+		}
+	}
+
+	/**
+	 * 
+	 * @return every reading, by name, in a fixed order
+	 */
+	public Map<String, Number> snapshot() {
+		Map<String, Number> values = new LinkedHashMap<String, Number>();
+		values.put("size", getSize());
+		values.put("capacity", getCapacity());
+		values.put("inserts", getInserts());
+		values.put("extracts", getExtracts());
+		values.put("insertSiftDepth", getAverageInsertSiftDepth());
+		values.put("maxInsertSiftDepth", getMaxInsertSiftDepth());
+		values.put("extractSiftDepth", getAverageExtractSiftDepth());
+		values.put("maxExtractSiftDepth", getMaxExtractSiftDepth());
+		values.put("updatesUp", getUpdatesUp());
+		values.put("updatesDown", getUpdatesDown());
+		values.put("updatesUnchanged", getUpdatesUnchanged());
+		values.put("swaps", getSwaps());
+		values.put("swapsPerOperation", getSwapsPerOperation());
+		return values;
+	}
+
+	/**
+	 * Send the current readings to an exporter.
+	 * @param exporter where to send them
+	 */
+	public void export(MetricsExporter exporter) {
+		exporter.export(name, snapshot());
+	}
+
+	private long count(Operation op) {
+		return counts.get(op.ordinal());
+	}
+
+	private static double ratio(long n, long d) {
+		return d == 0 ? 0 : (double) n / d;
+	}
+
+	@Override
+	public int getSize() {
+		return (int) counts.get(SIZE);
+	}
+
+	@Override
+	public int getCapacity() {
+		return heap.capacity();
+	}
+
+	@Override
+	public long getInserts() {
+		return count(Operation.INSERT);
+	}
+
+	@Override
+	public long getExtracts() {
+		return count(Operation.EXTRACT_MIN);
+	}
+
+	@Override
+	public double getAverageInsertSiftDepth() {
+		return ratio(counts.get(INSERT_DEPTH), getInserts());
+	}
+
+	@Override
+	public long getMaxInsertSiftDepth() {
+		return counts.get(INSERT_MAX);
+	}
+
+	@Override
+	public double getAverageExtractSiftDepth() {
+		return ratio(counts.get(EXTRACT_DEPTH), getExtracts());
+	}
+
+	@Override
+	public long getMaxExtractSiftDepth() {
+		return counts.get(EXTRACT_MAX);
+	}
+
+	@Override
+	public long getUpdatesUp() {
+		return count(Operation.UPDATE_UP);
+	}
+
+	@Override
+	public long getUpdatesDown() {
+		return count(Operation.UPDATE_DOWN);
+	}
+
+	@Override
+	public long getUpdatesUnchanged() {
+		return count(Operation.UPDATE_UNCHANGED);
+	}
+
+	@Override
+	public long getSwaps() {
+		return counts.get(SWAPS);
+	}
+
+	@Override
+	public double getSwapsPerOperation() {
+		long ops = 0;
+		for (int i=0; i < OPS; ++i) {
+			ops += counts.get(i);
+		}
+		return ratio(getSwaps(), ops);
+	}
+
+	@Override
+	public void reset() {
+		for (int i=0; i < counts.length(); ++i) {
+			if (i != SIZE) {
+				counts.set(i, 0);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package heaps.metrics;
+
+/**
+ * What HeapMetrics shows through JMX.  Sift depths count the swaps that
+ * moved an Entry up or down after it was placed;  swaps per operation
+ * count every swap, including the one extractMin uses to empty the root.
+ *
+ */
+public interface HeapMetricsMBean {
+
+	int getSize();
+
+	int getCapacity();
+
+	long getInserts();
+
+	long getExtracts();
+
+	double getAverageInsertSiftDepth();
+
+	long getMaxInsertSiftDepth();
+
+	double getAverageExtractSiftDepth();
+
+	long getMaxExtractSiftDepth();
+
+	long getUpdatesUp();
+
+	long getUpdatesDown();
+
+	long getUpdatesUnchanged();
+
+	long getSwaps();
+
+	double getSwapsPerOperation();
+
+	/**
+	 * Start counting again from zero;  size and capacity are not affected.
+	 */
+	void reset();
+
+}
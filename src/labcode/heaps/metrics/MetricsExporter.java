@@ -0,0 +1,34 @@
+package heaps.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Somewhere to send the readings of a HeapMetrics, such as a
+ * monitoring system or a log.
+ *
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+	/**
+	 * 
+	 * @param name the name of the heap measured
+	 * @param values each reading, by name, in a fixed order
+	 */
+	void export(String name, Map<String, Number> values);
+
+	/**
+	 * 
+	 * @param out where to print
+	 * @return an exporter that prints one line of name=value pairs per export
+	 */
+	static MetricsExporter printingTo(PrintStream out) {
+		return (name, values) -> {
+			StringBuilder sb = new StringBuilder(name);
+			values.forEach((k, v) -> sb.append(' ').append(k).append('=').append(v));
+			out.println(sb);
+		};
+	}
+
+}
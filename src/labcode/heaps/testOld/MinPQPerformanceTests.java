@@ -2,16 +2,26 @@ package heaps.testOld;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
+import heaps.HeapSort;
 import heaps.MinHeap;
 import heaps.MinPriorityQueue;
+import timing.ExecuteAlgorithm;
+import timing.InputSpec;
+import timing.analysis.ComplexityAnalyzer;
+import timing.utils.GenSizes;
+import timing.utils.IntArrayGenerator;
+import timing.utils.SizeAndLong;
 
 @TestMethodOrder(OrderAnnotation.class)
 public class MinPQPerformanceTests {
@@ -92,4 +102,24 @@ public class MinPQPerformanceTests {
 		double relativeError = Math.abs(timeFor16000)/expectedTime;
 		System.out.println(relativeError);
 	}
+
+	/**
+	 * Ticks do not depend on the machine, so they can be compared against
+	 * the stored baseline.  Fails if HeapSort no longer grows as n lg n, or
+	 * if its constant grew by more than 10%.
+	 */
+	@Test
+	@Order(2)
+	public void testTicksMatchBaseline() {
+		List<SizeAndLong> ticks = new LinkedList<SizeAndLong>();
+		for (int n : GenSizes.geometric(1000, 64001, 2)) {
+			ExecuteAlgorithm<Integer[],Integer[]> ea = new ExecuteAlgorithm<Integer[],Integer[]>(
+					new IntArrayGenerator(), new HeapSort(), InputSpec.gen(n));
+			ea.run();
+			ticks.add(new SizeAndLong(n, ea.getTicks()));
+		}
+		ComplexityAnalyzer.Fit fit = ComplexityAnalyzer.checkAgainst(ticks, "outputs/heapsort-ticks-baseline.csv", 0.10);
+		System.out.println("HeapSort ticks: " + fit);
+		assertEquals(ComplexityAnalyzer.Model.NLOGN, fit.model, "HeapSort ticks should grow as n lg n");
+	}
 }
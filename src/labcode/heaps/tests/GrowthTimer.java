@@ -0,0 +1,53 @@
+package heaps.tests;
+
+import java.util.SplittableRandom;
+
+import heaps.MinHeap;
+import heaps.util.GrowthPolicy;
+import timing.Ticker;
+import timing.utils.SeededInts;
+
+/**
+ * 
+ * Compare the storage growth policies of MinHeap on a spike:
+ * insert a burst of entries, then drain the heap back to a small
+ * idle size.  For each policy, report the longest and total resize pauses
+ * and the capacity held once idle, with and without auto-shrinking.
+ *
+ */
+public class GrowthTimer {
+
+	public static void main(String[] args) {
+		runExperiment(args.length > 0 ? Integer.parseInt(args[0]) : 4000000, 10000);
+	}
+
+	/**
+	 * 
+	 * @param peak number of entries at the top of the spike
+	 * @param idle number of entries left after draining
+	 */
+	private static void runExperiment(int peak, int idle) {
+		System.out.println("policy \tshrink \tresizes \tlongest(ms) \ttotal(ms) \tcapacity at idle \tspike(ms)");
+		for (GrowthPolicy policy : GrowthPolicy.values()) {
+			for (boolean shrink : new boolean[] { false, true }) {
+				MinHeap<Integer,Integer> heap = new MinHeap<Integer,Integer>(idle, new Ticker(), policy, shrink);
+				SplittableRandom r = new SplittableRandom(SeededInts.defaultSeed());
+				long start = System.nanoTime();
+				for (int i=0; i < peak; ++i) {
+					heap.insert(i, r.nextInt());
+				}
+				while (heap.size() > idle) {
+					heap.extractMin();
+				}
+				long took = System.nanoTime() - start;
+				System.out.println(policy + " \t" + shrink
+					+ " \t" + heap.getResizeCount()
+					+ " \t" + heap.getLongestResize().toMillis()
+					+ " \t" + heap.getResizeTime().toMillis()
+					+ " \t" + heap.capacity()
+					+ " \t" + took / 1000000);
+			}
+		}
+	}
+
+}
@@ -3,6 +3,7 @@ package heaps.tests;
 import timing.ExecuteAlgorithm;
 import timing.utils.GenSizes;
 import timing.utils.IntArrayGenerator;
+import timing.utils.PrimitiveIntArrayGenerator;
 
 /**
  * 
@@ -18,8 +19,15 @@ public class HeapTimer {
 
 
 
+	/**
+	 * Pass "compare" to also chart the in-place heapsorts and Arrays.sort
+	 * alongside the MinHeap-based HeapSort.
+	 */
 	public static void main(String[] args) {
 		runExperiment(30000);   
+		if (args.length > 0 && args[0].equals("compare")) {
+			runComparison(30000);
+		}
 	}
 
 	/**
@@ -43,4 +51,29 @@ public class HeapTimer {
 				);
 	}
 
+	/**
+	 * Run the int[] sorts on random arrays of the same sizes as runExperiment,
+	 * storing their results in the "outputs" folder.
+	 * 
+	 * @param factor scale factor by which to multiply start/end array sizes
+	 */
+	private static void runComparison(int factor) {
+		int start = 5;
+		int end   = 25;
+		GenSizes sizes = GenSizes.arithmetic(start*factor, end*factor, factor);
+		String[][] sorts = {
+				{ "inplace-heapsort",  "heaps.IntHeapSort" },
+				{ "bottomup-heapsort", "heaps.BottomUpIntHeapSort" },
+				{ "arrays-sort",       "heaps.IntArraysSort" }
+		};
+		for (String[] sort : sorts) {
+			ExecuteAlgorithm.timeAlgorithm(
+					sort[0], 
+					sort[1], 
+					new PrimitiveIntArrayGenerator(), 
+					sizes
+					);
+		}
+	}
+
 }
@@ -0,0 +1,105 @@
+package heaps.tests;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+
+import heaps.InPlaceHeapSort;
+
+/**
+ * Both in-place heapsorts, standard and bottom-up, must agree with
+ * Arrays.sort for every element type.
+ */
+@TestMethodOrder(OrderAnnotation.class)
+class InPlaceHeapSortTests {
+
+	// Tiny sizes, odd sizes (a last parent with one child), and larger ones
+	private static final int[] SIZES = { 0, 1, 2, 3, 4, 5, 7, 10, 99, 100, 1001 };
+
+	/**
+	 *
+	 * @param n size of the array
+	 * @param kind 0: random, 1: few distinct values, 2: ascending, 3: descending
+	 * @return the input
+	 */
+	private static int[] input(int n, int kind) {
+		Random r = new Random(35 + n + kind);
+		int[] a = new int[n];
+		for (int i=0; i < n; ++i) {
+			switch (kind) {
+			case 0:  a[i] = r.nextInt();  break;
+			case 1:  a[i] = r.nextInt(3); break;
+			case 2:  a[i] = i;            break;
+			default: a[i] = n - i;        break;
+			}
+		}
+		return a;
+	}
+
+	@Test
+	@Order(1)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testInts() {
+		for (int n : SIZES) {
+			for (int kind=0; kind < 4; ++kind) {
+				int[] expected = input(n, kind);
+				Arrays.sort(expected);
+				int[] a = input(n, kind);
+				InPlaceHeapSort.sort(a);
+				assertArrayEquals(expected, a, "sort(int[]) of size " + n + ", input kind " + kind);
+				a = input(n, kind);
+				InPlaceHeapSort.bottomUpSort(a);
+				assertArrayEquals(expected, a, "bottomUpSort(int[]) of size " + n + ", input kind " + kind);
+			}
+		}
+	}
+
+	@Test
+	@Order(2)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testLongs() {
+		for (int n : SIZES) {
+			for (int kind=0; kind < 4; ++kind) {
+				long[] original = Arrays.stream(input(n, kind)).asLongStream().map(x -> x * 3000000000L).toArray();
+				long[] expected = original.clone();
+				Arrays.sort(expected);
+				long[] a = original.clone();
+				InPlaceHeapSort.sort(a);
+				assertArrayEquals(expected, a, "sort(long[]) of size " + n + ", input kind " + kind);
+				a = original.clone();
+				InPlaceHeapSort.bottomUpSort(a);
+				assertArrayEquals(expected, a, "bottomUpSort(long[]) of size " + n + ", input kind " + kind);
+			}
+		}
+	}
+
+	@Test
+	@Order(3)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testObjects() {
+		for (Comparator<Integer> cmp : Arrays.asList(Comparator.<Integer>naturalOrder(), Comparator.<Integer>reverseOrder())) {
+			for (int n : SIZES) {
+				for (int kind=0; kind < 4; ++kind) {
+					Integer[] original = Arrays.stream(input(n, kind)).boxed().toArray(Integer[]::new);
+					Integer[] expected = original.clone();
+					Arrays.sort(expected, cmp);
+					Integer[] a = original.clone();
+					InPlaceHeapSort.sort(a, cmp);
+					assertArrayEquals(expected, a, "sort(T[]) by " + cmp + " of size " + n + ", input kind " + kind);
+					a = original.clone();
+					InPlaceHeapSort.bottomUpSort(a, cmp);
+					assertArrayEquals(expected, a, "bottomUpSort(T[]) by " + cmp + " of size " + n + ", input kind " + kind);
+				}
+			}
+		}
+	}
+
+}
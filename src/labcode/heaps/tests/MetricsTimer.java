@@ -0,0 +1,48 @@
+package heaps.tests;
+
+import java.util.Random;
+
+import heaps.MinHeap;
+import heaps.metrics.HeapMetrics;
+import heaps.metrics.MetricsExporter;
+
+/**
+ * 
+ * Show what HeapMetrics reports for random, increasing and decreasing
+ * priorities.  Decreasing priorities make every insert sift to the root,
+ * which shows up as an insert sift depth close to the height of the heap.
+ *
+ */
+public class MetricsTimer {
+
+	public static void main(String[] args) {
+		runExperiment(1 << 20);
+	}
+
+	/**
+	 * Fill a heap each way, then empty half of it, and export the metrics.
+	 * 
+	 * @param size number of entries inserted each way
+	 */
+	private static void runExperiment(int size) {
+		MetricsExporter out = MetricsExporter.printingTo(System.out);
+		Random random = new Random(47);
+		String[] orders = { "random", "increasing", "decreasing" };
+		for (String order : orders) {
+			MinHeap<Integer,Integer> heap = new MinHeap<Integer,Integer>();
+			HeapMetrics metrics = new HeapMetrics(heap, order);
+			long start = System.nanoTime();
+			for (int i=0; i < size; ++i) {
+				int p = order.equals("random") ? random.nextInt() : order.equals("increasing") ? i : -i;
+				heap.insert(i, p);
+			}
+			for (int i=0; i < size/2; ++i) {
+				heap.extractMin();
+			}
+			long ms = (System.nanoTime() - start) / 1000000;
+			metrics.export(out);
+			System.out.println("  " + ms + " ms");
+		}
+	}
+
+}
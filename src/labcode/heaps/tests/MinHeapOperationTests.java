@@ -0,0 +1,702 @@
+package heaps.tests;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+
+import heaps.MinHeap;
+import heaps.PQEntry;
+import heaps.metrics.HeapMetrics;
+import heaps.util.GrowthPolicy;
+import heaps.util.HeapToStrings;
+import heaps.validate.BackgroundHeapChecker;
+import heaps.validate.HeapValidationError;
+import heaps.validate.MinHeapValidator;
+import heaps.validate.ParallelHeapValidator;
+import timing.Ticker;
+
+/**
+ * These tests cover operations that MinHeap offers beyond the MinPriorityQueue interface.
+ */
+@TestMethodOrder(OrderAnnotation.class)
+class MinHeapOperationTests {
+
+    /**
+     * Generate heap with integer data and integer priorities.
+     *
+     * @return new MinHeap
+     */
+	public static MinHeap<Integer, Integer> getHeap() {
+		return new MinHeap<Integer, Integer>();
+	}
+
+    /**
+     * replaceMin on an empty heap just inserts.
+     */
+	@Test
+	@Order(1) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testReplaceMinEmpty() {
+		MinHeap<Integer, Integer> mh = getHeap();
+
+		assertNull(mh.replaceMin(1, 2),
+				"replaceMin() on an empty heap should return null");
+
+		assertEquals("(E=1, P=2)", 
+				mh.toString(),
+				"String representation is incorrect");
+	}
+
+    /**
+     * replaceMin returns the old minimum and keeps the heap valid.
+     */
+	@Test
+	@Order(2) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testReplaceMin() {
+		MinHeap<Integer, Integer> mh = getHeap();
+		MinHeapValidator<Integer, Integer> v = new MinHeapValidator<Integer, Integer>(mh);
+		for (int i : new int[] { 5, 3, 8, 1, 9, 4 }) {
+			mh.insert(i, i);
+		}
+
+		PQEntry<Integer, Integer> min = mh.replaceMin(7, 7);
+		v.check();
+
+		assertEquals(1, 
+				min.getElement(),
+				"replaceMin() returned the wrong entry");
+
+		assertEquals(6, 
+				mh.size(),
+				"replaceMin() should not change the size");
+
+		assertEquals(3, 
+				mh.peekMin().getElement(),
+				"Minimum after replaceMin() is incorrect");
+	}
+
+    /**
+     * insertThenExtract returns the new entry when it is the minimum,
+     * without changing the heap.
+     */
+	@Test
+	@Order(3) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testInsertThenExtractSmallest() {
+		MinHeap<Integer, Integer> mh = getHeap();
+		mh.insert(5, 5);
+		mh.insert(6, 6);
+		String before = mh.toString();
+
+		PQEntry<Integer, Integer> min = mh.insertThenExtract(2, 2);
+
+		assertEquals(2, 
+				min.getElement(),
+				"insertThenExtract() returned the wrong entry");
+
+		assertEquals(before, 
+				mh.toString(),
+				"insertThenExtract() should not change the heap");
+
+		// The entry never entered the heap, so updating it must not disturb the heap
+		min.updatePriority(10);
+		assertEquals(before, 
+				mh.toString(),
+				"Updating an entry outside the heap should not change the heap");
+	}
+
+    /**
+     * Random mixes of replaceMin and insertThenExtract give the same
+     * minimums as extractMin and insert, and handles stay usable.
+     */
+	@Test
+	@Order(4) 
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testReplaceMatchesExtractInsert() {
+		Random r = new Random(247);
+		MinHeap<Integer, Integer> mh = getHeap();
+		MinHeap<Integer, Integer> ref = getHeap();
+		MinHeapValidator<Integer, Integer> v = new MinHeapValidator<Integer, Integer>(mh);
+		for (int i=0; i < 50; ++i) {
+			int p = r.nextInt(100);
+			mh.insert(p, p);
+			ref.insert(p, p);
+		}
+		for (int i=0; i < 500; ++i) {
+			int p = r.nextInt(100);
+			PQEntry<Integer, Integer> got;
+			PQEntry<Integer, Integer> expected;
+			if (r.nextBoolean()) {
+				got = mh.replaceMin(p, p);
+				expected = ref.extractMin();
+				ref.insert(p, p);
+			}
+			else {
+				got = mh.insertThenExtract(p, p);
+				ref.insert(p, p);
+				expected = ref.extractMin();
+			}
+			v.check();
+			assertEquals(expected.getPriority(), 
+					got.getPriority(),
+					"Wrong minimum at step " + i);
+			assertEquals(ref.size(), 
+					mh.size(),
+					"Wrong size at step " + i);
+		}
+		// Handles returned by replaceMin can still be updated
+		PQEntry<Integer, Integer> old = mh.replaceMin(1000, 1000);
+		assertNotNull(old, "replaceMin() should return the old minimum");
+		PQEntry<Integer, Integer> top = mh.peekMin();
+		top.updatePriority(-1);
+		v.check();
+		assertEquals(top, 
+				mh.peekMin(),
+				"Updated entry should be the minimum");
+	}
+
+    /**
+     * With pooling, an extracted and recycled entry is reused by the next insert.
+     */
+	@Test
+	@Order(5) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testRecycleReusesEntry() {
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(4, new Ticker(), true);
+		MinHeapValidator<Integer, Integer> v = new MinHeapValidator<Integer, Integer>(mh);
+		mh.insert(5, 5);
+		mh.insert(3, 3);
+		PQEntry<Integer, Integer> min = mh.extractMin();
+		mh.recycle(min);
+
+		PQEntry<Integer, Integer> reused = mh.insert(4, 4);
+		v.check();
+
+		assertSame(min, 
+				reused,
+				"insert() should reuse the recycled entry");
+
+		assertEquals(4, 
+				reused.getElement(),
+				"Reused entry has the wrong element");
+
+		assertEquals("(E=4, P=4) (E=5, P=5)", 
+				mh.toString(),
+				"String representation is incorrect");
+	}
+
+    /**
+     * A recycled entry cannot be updated, and a stale stamp is detected
+     * once the entry has been reused.
+     */
+	@Test
+	@Order(6) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testRecycledEntryRejected() {
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(4, new Ticker(), true);
+		PQEntry<Integer, Integer> e = mh.insert(1, 1);
+		int stamp = mh.stamp(e);
+		mh.insert(2, 2);
+		assertThrows(IllegalArgumentException.class, () -> mh.recycle(e),
+				"Recycling an entry still in the heap should fail");
+
+		mh.extractMin();
+		mh.recycle(e);
+		assertThrows(IllegalStateException.class, () -> e.updatePriority(0),
+				"Updating a recycled entry should fail");
+		assertThrows(IllegalStateException.class, () -> mh.recycle(e),
+				"Recycling an entry twice should fail");
+
+		mh.insert(3, 3);
+		assertThrows(IllegalStateException.class, () -> mh.updatePriority(e, stamp, 0),
+				"Updating through a stale stamp should fail");
+
+		mh.updatePriority(e, mh.stamp(e), 0);
+		assertEquals(3, 
+				mh.peekMin().getElement(),
+				"Updating through a current stamp should work");
+	}
+
+    /**
+     * With auto-shrink, draining a heap gives back storage, but never
+     * below the initial capacity; trimToSize releases the rest.
+     */
+	@Test
+	@Order(7) 
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testShrinkAfterDrain() {
+		for (GrowthPolicy policy : GrowthPolicy.values()) {
+			MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(16, new Ticker(), policy, true);
+			MinHeapValidator<Integer, Integer> v = new MinHeapValidator<Integer, Integer>(mh);
+			Random r = new Random(247);
+			for (int i=0; i < 20000; ++i) {
+				mh.insert(i, r.nextInt(1000));
+			}
+			assertTrue(mh.capacity() >= 20000, 
+					policy + ": capacity should have grown");
+			int last = Integer.MIN_VALUE;
+			while (mh.size() > 10) {
+				int p = mh.extractMin().getPriority();
+				assertTrue(p >= last, policy + ": extracted out of order");
+				last = p;
+			}
+			v.check();
+			assertTrue(mh.capacity() < 20000, 
+					policy + ": capacity should have shrunk, but is " + mh.capacity());
+			assertTrue(mh.capacity() >= 16 || policy == GrowthPolicy.CHUNKED, 
+					policy + ": capacity shrank below the initial capacity");
+
+			mh.trimToSize();
+			assertEquals(10, 
+					mh.size(),
+					policy + ": trimToSize() should not change the size");
+			v.check();
+		}
+	}
+
+    /**
+     * Without auto-shrink, storage keeps its peak capacity until trimToSize.
+     */
+	@Test
+	@Order(8) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testNoShrinkUntilTrim() {
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(4, new Ticker(), GrowthPolicy.DOUBLING, false);
+		for (int i=0; i < 100; ++i) {
+			mh.insert(i, i);
+		}
+		int peak = mh.capacity();
+		while (!mh.isEmpty()) {
+			mh.extractMin();
+		}
+		assertEquals(peak, 
+				mh.capacity(),
+				"Capacity should not change without auto-shrink");
+
+		mh.insert(1, 1);
+		mh.trimToSize();
+		assertEquals(1, 
+				mh.capacity(),
+				"trimToSize() should leave room for the current size only");
+		assertEquals("(E=1, P=1)", 
+				mh.toString(),
+				"String representation is incorrect");
+	}
+
+    /**
+     * Incremental checks pass on a random mix of operations, and catch
+     * an Entry whose position is wrong.
+     */
+	@Test
+	@Order(9) 
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testIncrementalValidation() throws ReflectiveOperationException {
+		Random r = new Random(247);
+		MinHeap<Integer, Integer> mh = getHeap();
+		MinHeapValidator<Integer, Integer> v = new MinHeapValidator<Integer, Integer>(mh);
+		List<PQEntry<Integer, Integer>> handles = new ArrayList<PQEntry<Integer, Integer>>();
+		for (int i=0; i < 2000; ++i) {
+			int p = r.nextInt(500);
+			switch (r.nextInt(3)) {
+			case 0:
+				PQEntry<Integer, Integer> e = mh.insert(p, p);
+				handles.add(e);
+				v.checkAround(e);
+				break;
+			case 1:
+				if (!mh.isEmpty()) {
+					handles.remove(mh.extractMin());
+					v.checkAfterRemoval();
+				}
+				break;
+			default:
+				if (!handles.isEmpty()) {
+					PQEntry<Integer, Integer> u = handles.get(r.nextInt(handles.size()));
+					u.updatePriority(p);
+					v.checkAround(u);
+				}
+			}
+		}
+		v.check();
+
+		// Corrupt the position of the root's first child
+		PQEntry<Integer, Integer> child = mh.entryAt(1);
+		Field position = child.getClass().getDeclaredField("position");
+		position.setAccessible(true);
+		position.setInt(child, 7);
+		assertThrows(HeapValidationError.class, () -> v.checkAround(mh.entryAt(3)),
+				"A wrong position on the checked path should be reported");
+		position.setInt(child, 1);
+	}
+
+    /**
+     * The background checker samples the heap while it changes under
+     * the lock, and catches an Entry whose position is wrong.
+     */
+	@Test
+	@Order(10) 
+	@Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+	public void testBackgroundChecker() throws Exception {
+		Random r = new Random(247);
+		Ticker ticker = new Ticker();
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(16, ticker, false);
+		List<HeapValidationError> found = Collections.synchronizedList(new ArrayList<HeapValidationError>());
+		BackgroundHeapChecker<Integer, Integer> checker = new BackgroundHeapChecker<Integer, Integer>(
+				mh, mh, Duration.ofMillis(1), 64, 2, e -> found.add(e));
+		while (checker.getChecks() < 5) {
+			synchronized (mh) {
+				mh.insert(r.nextInt(1000), r.nextInt(1000));
+				if (r.nextInt(3) == 0) {
+					mh.extractMin();
+				}
+			}
+		}
+		checker.close();
+		assertTrue(found.isEmpty(), 
+				"No violations should be found in a valid heap");
+
+		BackgroundHeapChecker<Integer, Integer> full = new BackgroundHeapChecker<Integer, Integer>(
+				mh, mh, Duration.ofDays(1), mh.size(), 2, e -> found.add(e));
+		long ticks = ticker.getTickCount();
+		full.checkNow();
+		assertEquals(ticks, 
+				ticker.getTickCount(),
+				"Checking should not be counted by the heap's ticker");
+		PQEntry<Integer, Integer> child = mh.entryAt(mh.size() / 2);
+		Field position = child.getClass().getDeclaredField("position");
+		position.setAccessible(true);
+		position.setInt(child, 0);
+		assertThrows(HeapValidationError.class, () -> full.checkNow(),
+				"A wrong position should be reported");
+		position.setInt(child, mh.size() / 2);
+		full.close();
+	}
+
+    /**
+     * The parallel validator accepts a valid heap, stops at one violation
+     * by default, and finds every violation when asked to.
+     */
+	@Test
+	@Order(11) 
+	@Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+	public void testParallelValidation() throws ReflectiveOperationException, InterruptedException {
+		Random r = new Random(247);
+		MinHeap<Integer, Integer> mh = getHeap();
+		for (int i=0; i < 100000; ++i) {
+			mh.insert(i, r.nextInt(1000000));
+		}
+		ParallelHeapValidator<Integer, Integer> first = new ParallelHeapValidator<Integer, Integer>(mh);
+		ParallelHeapValidator<Integer, Integer> all = new ParallelHeapValidator<Integer, Integer>(
+				mh, ForkJoinPool.commonPool(), true);
+		first.check();
+		all.check();
+
+		// Give two far-apart leaves a priority smaller than their parents'
+		int[] leaves = { 60000, 99999 };
+		Field priority = mh.entryAt(0).getClass().getDeclaredField("priority");
+		priority.setAccessible(true);
+		for (int leaf : leaves) {
+			priority.set(mh.entryAt(leaf), -1);
+		}
+		assertThrows(HeapValidationError.class, () -> first.check(),
+				"A child smaller than its parent should be reported");
+		assertEquals(1, 
+				first.findViolations().size(),
+				"Only one violation should be reported by default");
+
+		List<ParallelHeapValidator.Violation> found = all.findViolations();
+		assertEquals(2, 
+				found.size(),
+				"Every violation should be reported");
+		assertEquals((leaves[0] - 1) / 2, 
+				found.get(0).index,
+				"Violations should be reported in index order");
+
+		// Checks running at once on one validator keep their own results
+		List<Integer> counts = Collections.synchronizedList(new ArrayList<Integer>());
+		Thread[] threads = new Thread[4];
+		for (int t=0; t < threads.length; ++t) {
+			threads[t] = new Thread(() -> {
+				for (int k=0; k < 20; ++k) {
+					counts.add(all.findViolations().size());
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		for (int count : counts) {
+			assertEquals(2, 
+					count,
+					"Concurrent checks should not share their results");
+		}
+	}
+
+    /**
+     * Renderings can be limited in depth and size, and say what was left out.
+     */
+	@Test
+	@Order(12) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testLimitedRendering() throws IOException {
+		MinHeap<Integer, Integer> mh = getHeap();
+		for (int i=0; i < 6; ++i) {
+			mh.insert(i, i);
+		}
+
+		assertEquals(" (E=0, P=0)\n"
+				+ "... 5 of 6 entries not shown\n", 
+				HeapToStrings.toTree(mh, 1, 100),
+				"Tree limited to one level is incorrect");
+
+		assertEquals("(E=0, P=0)\n"
+				+ "  (E=1, P=1)\n"
+				+ "    ...\n"
+				+ "    ...\n"
+				+ "  (E=2, P=2)\n"
+				+ "    ...\n"
+				+ "... 3 of 6 entries not shown\n", 
+				HeapToStrings.toOutline(mh, 2, 100),
+				"Outline limited to two levels is incorrect");
+
+		StringBuilder sb = new StringBuilder();
+		HeapToStrings.writeEntries(mh, sb, 2);
+		assertEquals("(E=0, P=0) (E=1, P=1) ... 4 more", 
+				sb.toString(),
+				"Entries limited to two are incorrect");
+
+		sb.setLength(0);
+		HeapToStrings.writeEntries(mh, sb, HeapToStrings.NO_LIMIT);
+		assertEquals(mh.toString(), 
+				sb.toString(),
+				"Unlimited entries should match toString()");
+	}
+
+    /**
+     * Metrics follow the size of the heap, how far inserts sift, and which way updates move.
+     */
+	@Test
+	@Order(13) 
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testMetrics() {
+		MinHeap<Integer, Integer> mh = getHeap();
+		HeapMetrics metrics = new HeapMetrics(mh, "test");
+		for (int i=100; i > 0; --i) {
+			mh.insert(i, i);
+		}
+		assertEquals(100, 
+				metrics.getSize(),
+				"Size should count the inserts");
+		assertEquals(6, 
+				metrics.getMaxInsertSiftDepth(),
+				"Decreasing inserts should each sift to the root");
+
+		mh.extractMin();
+		assertEquals(99, 
+				metrics.getSize(),
+				"Size should count the extracts");
+		assertEquals(1, 
+				metrics.getExtracts(),
+				"One extract was made");
+
+		PQEntry<Integer, Integer> leaf = mh.entryAt(98);
+		leaf.updatePriority(-1);
+		leaf.updatePriority(-1);
+		leaf.updatePriority(1000);
+		assertEquals(1, 
+				metrics.getUpdatesUp(),
+				"One update moved its Entry up");
+		assertEquals(1, 
+				metrics.getUpdatesUnchanged(),
+				"One update left its Entry in place");
+		assertEquals(1, 
+				metrics.getUpdatesDown(),
+				"One update moved its Entry down");
+		assertTrue(metrics.getSwapsPerOperation() > 0, "Swaps should be counted");
+
+		metrics.reset();
+		assertEquals(0, 
+				metrics.getInserts(),
+				"Reset should clear the counts");
+		assertEquals(99, 
+				metrics.getSize(),
+				"Reset should not change the size");
+		assertEquals(mh.capacity(), 
+				metrics.getCapacity(),
+				"Capacity should be read from the heap");
+
+		// Metrics attached to a heap already in use start from its size
+		PQEntry<Integer, Integer> gone = mh.extractMin();
+		HeapMetrics late = new HeapMetrics(mh, "late");
+		assertEquals(98, 
+				late.getSize(),
+				"Size should start from the heap's size");
+		gone.updatePriority(5);
+		assertEquals(0, 
+				late.getUpdatesUnchanged() + late.getUpdatesUp() + late.getUpdatesDown(),
+				"Updating an Entry no longer in the heap is not an update");
+	}
+
+    /**
+     * Streams see every entry, the sorted stream yields the smallest first
+     *  without changing the heap, and iteration fails fast on changes.
+     */
+	@Test
+	@Order(14) 
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testStreams() {
+		Ticker ticker = new Ticker();
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(16, ticker, false);
+		Random random = new Random(14);
+		List<Integer> priorities = new ArrayList<Integer>();
+		for (int i=0; i < 100000; ++i) {
+			int p = random.nextInt(1000000);
+			priorities.add(p);
+			mh.insert(i, p);
+		}
+		Collections.sort(priorities);
+		String before = mh.toString();
+		long ticks = ticker.getTickCount();
+
+		assertEquals(priorities.stream().filter(p -> p < 500000).count(), 
+				mh.parallelStream().filter(e -> e.getPriority() < 500000).count(),
+				"Parallel count below a threshold is incorrect");
+		assertEquals(priorities.subList(0, 1000), 
+				mh.sortedStream().limit(1000).map(PQEntry::getPriority).collect(Collectors.toList()),
+				"Sorted stream should yield the smallest priorities first");
+		assertEquals(priorities, 
+				mh.sortedStream().map(PQEntry::getPriority).collect(Collectors.toList()),
+				"Sorted stream should yield every priority in order");
+		assertEquals(ticks, 
+				ticker.getTickCount(),
+				"Streams should not be counted by the ticker");
+		assertEquals(before, 
+				mh.toString(),
+				"Streams should not change the heap");
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			Iterator<PQEntry<Integer, Integer>> it = mh.iterator();
+			it.next();
+			mh.entryAt(99999).updatePriority(-1);
+			it.next();
+		}, "A swap during iteration should be detected");
+		assertThrows(ConcurrentModificationException.class, 
+				() -> mh.stream().forEach(e -> mh.insert(0, 0)),
+				"An insert during a stream should be detected");
+	}
+
+    /**
+     * peekSmallest returns what extractMin would, without changing the heap.
+     */
+	@Test
+	@Order(15) 
+	@Timeout(value = 1000, unit = TimeUnit.MILLISECONDS)
+	public void testPeekSmallest() {
+		Ticker ticker = new Ticker();
+		MinHeap<Integer, Integer> mh = new MinHeap<Integer, Integer>(16, ticker, false);
+		Random random = new Random(15);
+		for (int i=0; i < 10000; ++i) {
+			mh.insert(i, random.nextInt(100));
+		}
+		String before = mh.toString();
+		long ticks = ticker.getTickCount();
+
+		List<PQEntry<Integer, Integer>> smallest = mh.peekSmallest(100);
+		Iterator<PQEntry<Integer, Integer>> ordered = mh.orderedIterator();
+		assertEquals(ticks, 
+				ticker.getTickCount(),
+				"peekSmallest should not be counted by the ticker");
+		assertEquals(before, 
+				mh.toString(),
+				"peekSmallest should not change the heap");
+		new MinHeapValidator<Integer, Integer>(mh).check();
+
+		assertEquals(100, 
+				smallest.size(),
+				"peekSmallest returned the wrong number of entries");
+		for (PQEntry<Integer, Integer> e : smallest) {
+			assertSame(e, 
+					ordered.next(),
+					"The ordered iterator should agree with peekSmallest");
+		}
+		for (PQEntry<Integer, Integer> e : smallest) {
+			assertEquals(e.getPriority(), 
+					mh.extractMin().getPriority(),
+					"peekSmallest should match extractMin");
+		}
+
+		assertEquals(0, 
+				mh.peekSmallest(0).size(),
+				"peekSmallest(0) should be empty");
+		assertEquals(mh.size(), 
+				mh.peekSmallest(1000000).size(),
+				"peekSmallest beyond the size should return every entry");
+		assertThrows(IllegalArgumentException.class, () -> mh.peekSmallest(-1),
+				"A negative k should be rejected");
+	}
+
+    /**
+     * Entries at most a bound are visited or extracted, whether few or many.
+     */
+	@Test
+	@Order(16) 
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testAtMost() {
+		MinHeap<Integer, Integer> mh = getHeap();
+		Random random = new Random(16);
+		for (int i=0; i < 10000; ++i) {
+			mh.insert(i, random.nextInt(10000));
+		}
+		String before = mh.toString();
+		List<Integer> seen = new ArrayList<Integer>();
+		mh.forEachAtMost(5000, e -> seen.add(e.getPriority()));
+		assertEquals(mh.stream().filter(e -> e.getPriority() <= 5000).count(), 
+				seen.size(),
+				"forEachAtMost should visit every entry at most the bound");
+		assertEquals(before, 
+				mh.toString(),
+				"forEachAtMost should not change the heap");
+
+		// Few entries are extracted one at a time, many by rebuilding
+		for (int bound : new int[] { 10, 5000, 10000 }) {
+			int expected = (int) mh.stream().filter(e -> e.getPriority() <= bound).count();
+			int size = mh.size();
+			List<Integer> extracted = new ArrayList<Integer>();
+			assertEquals(expected, 
+					mh.extractAllAtMost(bound, e -> extracted.add(e.getPriority())),
+					"extractAllAtMost(" + bound + ") returned the wrong count");
+			List<Integer> sorted = new ArrayList<Integer>(extracted);
+			Collections.sort(sorted);
+			assertEquals(sorted, 
+					extracted,
+					"Entries should be given smallest first");
+			assertEquals(size - expected, 
+					mh.size(),
+					"Size after extractAllAtMost(" + bound + ") is incorrect");
+			assertEquals(0, 
+					mh.stream().filter(e -> e.getPriority() <= bound).count(),
+					"No entry at most the bound should remain");
+			new MinHeapValidator<Integer, Integer>(mh).check();
+		}
+		assertTrue(mh.isEmpty(), "Every entry was at most the last bound");
+	}
+
+}
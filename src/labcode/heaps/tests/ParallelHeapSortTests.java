@@ -0,0 +1,95 @@
+package heaps.tests;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+
+import heaps.ParallelHeapSort;
+
+/**
+ * The parallel sort and partial sort must agree with Arrays.sort, whatever
+ * the number of shards, which depends on the size and the pool.
+ */
+@TestMethodOrder(OrderAnnotation.class)
+class ParallelHeapSortTests {
+
+	// Empty, single-shard sizes, and sizes split into several uneven shards
+	private static final int[] SIZES = { 0, 1, 2, 1001, 8192, 70001, 200000 };
+	private static final int[] PARALLELISM = { 1, 2, 4 };
+
+	private static int[] input(int n, boolean duplicates) {
+		Random r = new Random(36 + n);
+		int[] a = new int[n];
+		for (int i=0; i < n; ++i) {
+			a[i] = duplicates ? r.nextInt(10) : r.nextInt();
+		}
+		return a;
+	}
+
+	@Test
+	@Order(1)
+	@Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+	public void testSort() {
+		for (int p : PARALLELISM) {
+			ForkJoinPool pool = new ForkJoinPool(p);
+			try {
+				for (int n : SIZES) {
+					for (boolean duplicates : new boolean[] { false, true }) {
+						int[] expected = input(n, duplicates);
+						Arrays.sort(expected);
+						int[] a = input(n, duplicates);
+						ParallelHeapSort.sort(a, pool);
+						assertArrayEquals(expected, a, "sort of size " + n + " on " + p + " threads");
+					}
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+		int[] a = input(100000, false);
+		int[] expected = a.clone();
+		Arrays.sort(expected);
+		ParallelHeapSort.sort(a);
+		assertArrayEquals(expected, a, "sort on the common pool");
+	}
+
+	@Test
+	@Order(2)
+	@Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+	public void testSmallest() {
+		for (int p : PARALLELISM) {
+			ForkJoinPool pool = new ForkJoinPool(p);
+			try {
+				for (int n : SIZES) {
+					int[] a = input(n, false);
+					int[] original = a.clone();
+					int[] sorted = a.clone();
+					Arrays.sort(sorted);
+					for (int k : new int[] { 0, 1, n / 2, n, n + 1, 2 * n + 5 }) {
+						assertArrayEquals(Arrays.copyOf(sorted, Math.min(k, n)),
+								ParallelHeapSort.smallest(a, k, pool),
+								"smallest " + k + " of " + n + " on " + p + " threads");
+					}
+					assertArrayEquals(original, a, "smallest should not change its input");
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+		int[] a = input(100000, true);
+		int[] sorted = a.clone();
+		Arrays.sort(sorted);
+		assertArrayEquals(Arrays.copyOf(sorted, 1000),
+				ParallelHeapSort.smallest(a, 1000),
+				"smallest with duplicates on the common pool");
+	}
+
+}
@@ -0,0 +1,47 @@
+package heaps.tests;
+
+import java.util.concurrent.ForkJoinPool;
+
+import heaps.ParallelIntHeapSort;
+import timing.ExecuteAlgorithm;
+import timing.utils.GenSizes;
+import timing.utils.PrimitiveIntArrayGenerator;
+
+/**
+ * 
+ * Run timing tests on ParallelHeapSort with 1, 2, ... up to all of
+ * the available cores, to show how it scales.
+ *
+ */
+public class ParallelSortTimer {
+
+	public static void main(String[] args) {
+		runExperiment(200000);
+	}
+
+	/**
+	 * For each number of cores, sort random arrays of incremental sizes
+	 * and store the results in the "outputs" folder, one set of files
+	 * per number of cores.
+	 * 
+	 * @param factor scale factor by which to multiply start/end array sizes
+	 */
+	private static void runExperiment(int factor) {
+		GenSizes sizes = GenSizes.arithmetic(5*factor, 25*factor, 5*factor);
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int p = 1; p <= cores; ++p) {
+			ForkJoinPool pool = new ForkJoinPool(p);
+			try {
+				ExecuteAlgorithm.timeAlgorithm(
+						"parallel-heapsort-" + p, 
+						new ParallelIntHeapSort(pool), 
+						new PrimitiveIntArrayGenerator(), 
+						sizes
+						);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+}
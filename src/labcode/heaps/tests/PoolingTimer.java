@@ -0,0 +1,70 @@
+package heaps.tests;
+
+import heaps.trace.HoldModelTraceGenerator;
+import heaps.trace.PooledTraceReplay;
+import heaps.trace.Trace;
+import heaps.trace.TraceReplay;
+import timing.ExecuteAlgorithm;
+import timing.InputSpec;
+import timing.utils.GenSizes;
+
+/**
+ * 
+ * Compare replaying a hold-model trace against a plain MinHeap and
+ * against one that pools its Entries.  Both replay the same trace,
+ * so the difference in bytes allocated is the Entries saved by pooling.
+ * Both replays are warmed up before anything is measured, and which one
+ * runs first alternates from size to size, so that neither is always
+ * measured colder or after the other has filled the heap.
+ *
+ */
+public class PoolingTimer {
+
+	public static void main(String[] args) {
+		runExperiment(30000);
+	}
+
+	/**
+	 * For each size, replay the same trace both ways and report
+	 * bytes allocated, collections and times.
+	 * 
+	 * @param factor scale factor by which to multiply start/end sizes
+	 */
+	private static void runExperiment(int factor) {
+		GenSizes sizes = GenSizes.arithmetic(5*factor, 25*factor, 5*factor);
+		HoldModelTraceGenerator gen = new HoldModelTraceGenerator();
+		for (int i=0; i < 2; ++i) {
+			Trace trace = gen.genInput(InputSpec.gen(5*factor));
+			new ExecuteAlgorithm<Trace,Long>(s -> trace, new TraceReplay(), InputSpec.gen(5*factor)).run();
+			new ExecuteAlgorithm<Trace,Long>(s -> trace, new PooledTraceReplay(), InputSpec.gen(5*factor)).run();
+		}
+		boolean plainFirst = true;
+		System.out.println("size \tplain(bytes) \tpooled(bytes) \tplain gcs \tpooled gcs \tplain(ms) \tpooled(ms)");
+		for (int size : sizes) {
+			Trace trace = gen.genInput(InputSpec.gen(size));
+			ExecuteAlgorithm<Trace,Long> plain = new ExecuteAlgorithm<Trace,Long>(
+					s -> trace, new TraceReplay(), InputSpec.gen(size));
+			ExecuteAlgorithm<Trace,Long> pooled = new ExecuteAlgorithm<Trace,Long>(
+					s -> trace, new PooledTraceReplay(), InputSpec.gen(size));
+			if (plainFirst) {
+				plain.run();
+				pooled.run();
+			}
+			else {
+				pooled.run();
+				plain.run();
+			}
+			plainFirst = !plainFirst;
+			if (!plain.getResults().equals(pooled.getResults())) {
+				throw new Error("Plain and pooled replay disagree at size " + size);
+			}
+			System.out.println(size + " \t" + plain.getAllocatedBytes()
+				+ " \t" + pooled.getAllocatedBytes()
+				+ " \t" + plain.getGcCount()
+				+ " \t" + pooled.getGcCount()
+				+ " \t" + plain.getTime().toMillis()
+				+ " \t" + pooled.getTime().toMillis());
+		}
+	}
+
+}
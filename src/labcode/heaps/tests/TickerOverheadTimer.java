@@ -0,0 +1,70 @@
+package heaps.tests;
+
+import java.util.Arrays;
+
+import heaps.HeapSort;
+import heaps.UninstrumentedHeapSort;
+import timing.ExecuteAlgorithm;
+import timing.InputSpec;
+import timing.utils.GenSizes;
+import timing.utils.IntArrayGenerator;
+
+/**
+ * 
+ * Compare HeapSort with counting enabled against the same sort run
+ * on a NoOpTicker.  Both sort identical input, so any difference in
+ * time is the cost of the ticks alone.  Both sorts are warmed up before
+ * anything is timed, so both Ticker types are loaded and compiled alike,
+ * and which sort runs first alternates from size to size, so that
+ * neither always runs in a fresher or more cluttered heap.
+ *
+ */
+public class TickerOverheadTimer {
+
+	public static void main(String[] args) {
+		runExperiment(30000);
+	}
+
+	/**
+	 * For each size, sort the same random array both ways and report
+	 * the ticks counted, both times, and the implied cost per tick.
+	 * 
+	 * @param factor scale factor by which to multiply start/end array sizes
+	 */
+	private static void runExperiment(int factor) {
+		GenSizes sizes = GenSizes.arithmetic(5*factor, 25*factor, 5*factor);
+		IntArrayGenerator gen = new IntArrayGenerator();
+		for (int i=0; i < 2; ++i) {
+			Integer[] input = gen.genInput(InputSpec.gen(5*factor));
+			new ExecuteAlgorithm<Integer[],Integer[]>(s -> input, new HeapSort(), InputSpec.gen(5*factor)).run();
+			new ExecuteAlgorithm<Integer[],Integer[]>(s -> input, new UninstrumentedHeapSort(), InputSpec.gen(5*factor)).run();
+		}
+		boolean countedFirst = true;
+		System.out.println("size \tticks \tcounted(ms) \tno-op(ms) \tns/tick");
+		for (int size : sizes) {
+			Integer[] input = gen.genInput(InputSpec.gen(size));
+			ExecuteAlgorithm<Integer[],Integer[]> counted = new ExecuteAlgorithm<Integer[],Integer[]>(
+					s -> input, new HeapSort(), InputSpec.gen(size));
+			ExecuteAlgorithm<Integer[],Integer[]> noop = new ExecuteAlgorithm<Integer[],Integer[]>(
+					s -> input, new UninstrumentedHeapSort(), InputSpec.gen(size));
+			if (countedFirst) {
+				counted.run();
+				noop.run();
+			}
+			else {
+				noop.run();
+				counted.run();
+			}
+			countedFirst = !countedFirst;
+			if (!Arrays.equals(counted.getResults(), noop.getResults())) {
+				throw new Error("Counted and no-op HeapSort disagree at size " + size);
+			}
+			long overhead = counted.getTime().toNanos() - noop.getTime().toNanos();
+			System.out.println(size + " \t" + counted.getTicks()
+				+ " \t" + counted.getTime().toMillis()
+				+ " \t" + noop.getTime().toMillis()
+				+ " \t" + String.format("%.3f", (double) overhead / counted.getTicks()));
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+package heaps.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+
+import heaps.BoundedTopK;
+import heaps.IntTopK;
+import heaps.LongTopK;
+
+/**
+ * The top-k keepers must keep what sorting everything and taking the
+ * first k would give, whether values arrive one at a time, are merged
+ * from parts, or are collected from a parallel stream.
+ */
+@TestMethodOrder(OrderAnnotation.class)
+class TopKTests {
+
+	/**
+	 *
+	 * @param n how many values
+	 * @param range values are in [0, range), so a small range gives many duplicates
+	 * @return the values
+	 */
+	private static int[] values(int n, int range) {
+		Random r = new Random(37 + n + range);
+		int[] a = new int[n];
+		for (int i=0; i < n; ++i) {
+			a[i] = r.nextInt(range);
+		}
+		return a;
+	}
+
+	/**
+	 *
+	 * @return the first k of a, best first
+	 */
+	private static int[] best(int[] a, int k, boolean largest) {
+		int[] sorted = a.clone();
+		Arrays.sort(sorted);
+		int[] ans = new int[Math.min(k, a.length)];
+		for (int i=0; i < ans.length; ++i) {
+			ans[i] = largest ? sorted[a.length - 1 - i] : sorted[i];
+		}
+		return ans;
+	}
+
+	@Test
+	@Order(1)
+	@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+	public void testBoundedOffer() {
+		BoundedTopK<String, Integer> top = BoundedTopK.keepLargest(3);
+		assertNull(top.worstKept(), "Nothing is kept yet");
+		assertTrue(top.offer("five", 5), "Offers are kept until full");
+		assertTrue(top.offer("one", 1), "Offers are kept until full");
+		assertTrue(top.offer("nine", 9), "Offers are kept until full");
+		assertTrue(top.isFull(), "Three offers fill a top 3");
+		assertEquals(1, top.worstKept(), "worstKept is the smallest of the largest");
+		assertTrue(top.offer("seven", 7), "7 beats the worst kept");
+		assertFalse(top.offer("three", 3), "3 does not beat the worst kept");
+		assertFalse(top.offer("five again", 5), "A tie with the worst kept does not replace it");
+		assertEquals(5, top.worstKept(), "worstKept after replacement is incorrect");
+		assertEquals(Arrays.asList("nine", "seven", "five"), top.toSortedList(), "Largest should be kept, best first");
+
+		BoundedTopK<String, Integer> low = BoundedTopK.keepSmallest(2);
+		for (int x : new int[] { 4, 8, 2, 6 }) {
+			low.offer("v" + x, x);
+		}
+		assertEquals(Arrays.asList("v2", "v4"), low.toSortedList(), "Smallest should be kept, best first");
+		assertEquals(4, low.worstKept(), "worstKept is the largest of the smallest");
+
+		BoundedTopK<String, Integer> none = BoundedTopK.keepLargest(0);
+		assertFalse(none.offer("x", 1), "A top 0 keeps nothing");
+		assertEquals(0, none.toSortedList().size(), "A top 0 keeps nothing");
+		assertThrows(IllegalArgumentException.class, () -> BoundedTopK.keepLargest(-1), "A negative k should be rejected");
+	}
+
+	@Test
+	@Order(2)
+	@Timeout(value = 1000, unit = TimeUnit.MILLISECONDS)
+	public void testBoundedMerge() {
+		int[] a = values(1000, 50);
+		for (boolean largest : new boolean[] { true, false }) {
+			BoundedTopK<Integer, Integer> left = new BoundedTopK<Integer, Integer>(10, largest);
+			BoundedTopK<Integer, Integer> right = new BoundedTopK<Integer, Integer>(10, largest);
+			for (int i=0; i < a.length; ++i) {
+				(i < 300 ? left : right).offer(a[i], a[i]);
+			}
+			left.offerAll(right);
+			assertEquals(IntStream.of(best(a, 10, largest)).boxed().collect(Collectors.toList()),
+					left.toSortedList(),
+					"Merging two parts should keep the best of both");
+
+			BoundedTopK<Integer, Integer> all = new BoundedTopK<Integer, Integer>(10, largest);
+			List<Integer> list = IntStream.of(a).boxed().collect(Collectors.toList());
+			all.offerAll(list.spliterator(), Function.identity());
+			assertEquals(left.toSortedList(), all.toSortedList(), "offerAll from a spliterator should keep the same");
+		}
+	}
+
+	@Test
+	@Order(3)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testCollectors() {
+		int[] a = values(20000, 100);
+		List<Integer> list = IntStream.of(a).boxed().collect(Collectors.toList());
+		for (int k : new int[] { 0, 1, 50, 25000 }) {
+			List<Integer> largest = IntStream.of(best(a, k, true)).boxed().collect(Collectors.toList());
+			List<Integer> smallest = IntStream.of(best(a, k, false)).boxed().collect(Collectors.toList());
+			assertEquals(largest,
+					list.stream().collect(BoundedTopK.largest(k, Function.<Integer>identity())),
+					"largest(" + k + ") on a sequential stream");
+			assertEquals(largest,
+					list.parallelStream().collect(BoundedTopK.largest(k, Function.<Integer>identity())),
+					"largest(" + k + ") on a parallel stream");
+			assertEquals(smallest,
+					list.stream().collect(BoundedTopK.smallest(k, Function.<Integer>identity())),
+					"smallest(" + k + ") on a sequential stream");
+			assertEquals(smallest,
+					list.parallelStream().collect(BoundedTopK.smallest(k, Function.<Integer>identity())),
+					"smallest(" + k + ") on a parallel stream");
+		}
+
+		// Elements with equal priorities: only the priorities kept are determined
+		List<String> words = new ArrayList<String>();
+		for (int i=0; i < 1000; ++i) {
+			words.add("w" + i);
+		}
+		Collections.shuffle(words, new Random(37));
+		List<String> kept = words.parallelStream().collect(BoundedTopK.largest(20, (String w) -> w.length()));
+		assertEquals(20, kept.size(), "Ties should not change how many are kept");
+		for (String w : kept) {
+			assertEquals(4, w.length(), "Only the longest words should be kept");
+		}
+	}
+
+	@Test
+	@Order(4)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testIntTopK() {
+		int[] a = values(20000, 1000);
+		for (boolean largest : new boolean[] { true, false }) {
+			IntTopK top = new IntTopK(5, largest);
+			top.offerAll(Arrays.copyOfRange(a, 0, 4));
+			assertFalse(top.isFull(), "Four values do not fill a top 5");
+			top.offerAll(Arrays.copyOfRange(a, 4, 100));
+			IntTopK rest = new IntTopK(5, largest);
+			rest.offerAll(Arrays.stream(a, 100, a.length).spliterator());
+			top.offerAll(rest);
+			assertArrayEquals(best(a, 5, largest), top.toSortedArray(), "Merged IntTopK, largest=" + largest);
+
+			for (int k : new int[] { 0, 1, 100, 30000 }) {
+				assertArrayEquals(best(a, k, largest),
+						IntTopK.of(IntStream.of(a).parallel(), k, largest).toSortedArray(),
+						"IntTopK.of a parallel stream, k=" + k + ", largest=" + largest);
+			}
+		}
+		IntTopK extremes = new IntTopK(2, false);
+		extremes.offerAll(new int[] { Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1 });
+		assertArrayEquals(new int[] { Integer.MIN_VALUE, -1 }, extremes.toSortedArray(),
+				"Complemented values should keep their order at the extremes");
+	}
+
+	@Test
+	@Order(5)
+	@Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+	public void testLongTopK() {
+		// Beyond the int range, and negative as well as positive
+		long[] a = IntStream.of(values(20000, 1000)).asLongStream().map(x -> (x - 500) * 10000000000L).toArray();
+		long[] sorted = a.clone();
+		Arrays.sort(sorted);
+		for (boolean largest : new boolean[] { true, false }) {
+			for (int k : new int[] { 0, 7, 30000 }) {
+				long[] expected = new long[Math.min(k, a.length)];
+				for (int i=0; i < expected.length; ++i) {
+					expected[i] = largest ? sorted[a.length - 1 - i] : sorted[i];
+				}
+				LongTopK top = new LongTopK(k, largest);
+				top.offerAll(Arrays.copyOfRange(a, 0, 1000));
+				LongTopK rest = new LongTopK(k, largest);
+				rest.offerAll(Arrays.stream(a, 1000, a.length).spliterator());
+				top.offerAll(rest);
+				assertArrayEquals(expected, top.toSortedArray(), "Merged LongTopK, k=" + k + ", largest=" + largest);
+				assertArrayEquals(expected,
+						LongTopK.of(LongStream.of(a).parallel(), k, largest).toSortedArray(),
+						"LongTopK.of a parallel stream, k=" + k + ", largest=" + largest);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package heaps.tests;
+
+import timing.ExecuteAlgorithm;
+import timing.utils.GenSizes;
+import timing.utils.SeededIntsGenerator;
+
+/**
+ * 
+ * Run timing tests on finding the top k=100 of streams of
+ * 1 thousand up to 1 billion random ints.
+ *
+ */
+public class TopKTimer {
+
+	public static void main(String[] args) {
+		runExperiment(1000000000);
+	}
+
+	/**
+	 * Time IntTopK and BoundedTopK on streams whose lengths grow by
+	 * factors of 10 up to max, storing the results in the "outputs" folder.
+	 * 
+	 * @param max length of the longest stream
+	 */
+	private static void runExperiment(int max) {
+		GenSizes sizes = GenSizes.geometric(1000, max+1, 10);
+		ExecuteAlgorithm.timeAlgorithm(
+				"topk-int", 
+				"heaps.TopKSelect", 
+				new SeededIntsGenerator(), 
+				sizes
+				);
+		ExecuteAlgorithm.timeAlgorithm(
+				"topk-boxed", 
+				"heaps.BoxedTopKSelect", 
+				new SeededIntsGenerator(), 
+				sizes
+				);
+	}
+
+}
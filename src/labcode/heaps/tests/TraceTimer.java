@@ -0,0 +1,78 @@
+package heaps.tests;
+
+import java.nio.file.Paths;
+
+import heaps.trace.BurstTraceGenerator;
+import heaps.trace.DecreaseKeyTraceGenerator;
+import heaps.trace.DuplicatePriorityTraceGenerator;
+import heaps.trace.HoldModelTraceGenerator;
+import heaps.trace.NearSortedTraceGenerator;
+import heaps.trace.RecordedTraceProvider;
+import heaps.trace.TraceGenerator;
+import timing.ExecuteAlgorithm;
+import timing.utils.GenSizes;
+
+/**
+ * 
+ * Run timing tests on MinHeap by replaying workload traces
+ * that resemble real priority queue usage.
+ *
+ */
+public class TraceTimer {
+
+	/**
+	 * With no arguments, replay generated workloads.  Given the path of a
+	 * trace recorded by RecordingMinPriorityQueue and a number of operations,
+	 * replay longer and longer prefixes of that recording instead.
+	 */
+	public static void main(String[] args) {
+		if (args.length == 2) {
+			runRecorded(args[0], Integer.parseInt(args[1]));
+		}
+		else {
+			runExperiment(30000);
+		}
+	}
+
+	/**
+	 * Replay prefixes of a recorded trace, from a tenth of ops up to ops.
+	 * @param file the recorded trace
+	 * @param ops number of operations in the longest prefix
+	 */
+	private static void runRecorded(String file, int ops) {
+		int step = Math.max(1, ops/10);
+		ExecuteAlgorithm.timeAlgorithm(
+				"trace-recorded",
+				"heaps.trace.TraceReplay",
+				new RecordedTraceProvider(Paths.get(file)),
+				GenSizes.arithmetic(step, ops+1, step)
+				);
+	}
+
+	/**
+	 * Replay each kind of trace at incremental sizes, storing
+	 * ticks and times in the "outputs" folder, one set of files per kind.
+	 * 
+	 * @param factor scale factor by which to multiply start/end sizes
+	 */
+	private static void runExperiment(int factor) {
+		TraceGenerator[] kinds = {
+				new NearSortedTraceGenerator(),
+				new DuplicatePriorityTraceGenerator(),
+				new HoldModelTraceGenerator(),
+				new BurstTraceGenerator(),
+				new DecreaseKeyTraceGenerator()
+		};
+		GenSizes sizes = GenSizes.arithmetic(5*factor, 25*factor, 5*factor);
+		for (TraceGenerator kind : kinds) {
+			String name = kind.getClass().getSimpleName().replace("TraceGenerator", "").toLowerCase();
+			ExecuteAlgorithm.timeAlgorithm(
+					"trace-" + name,
+					"heaps.trace.TraceReplay",
+					kind,
+					sizes
+					);
+		}
+	}
+
+}
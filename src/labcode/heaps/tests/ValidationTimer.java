@@ -0,0 +1,46 @@
+package heaps.tests;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import heaps.MinHeap;
+import heaps.validate.MinHeapValidator;
+import heaps.validate.ParallelHeapValidator;
+import timing.Ticker;
+import timing.utils.SeededInts;
+
+/**
+ * 
+ * Compare a full sequential MinHeapValidator check against
+ * ParallelHeapValidator on heaps of increasing size.
+ *
+ */
+public class ValidationTimer {
+
+	public static void main(String[] args) {
+		runExperiment(args.length > 0 ? Integer.parseInt(args[0]) : 8000000);
+	}
+
+	/**
+	 * 
+	 * @param largest size of the largest heap, which is built by doubling from a sixteenth of it
+	 */
+	private static void runExperiment(int largest) {
+		System.out.println("size \tsequential(ms) \tparallel(ms) \tthreads " + ForkJoinPool.commonPool().getParallelism());
+		for (int size = largest / 16; size <= largest; size *= 2) {
+			MinHeap<Integer,Integer> heap = new MinHeap<Integer,Integer>(size, new Ticker());
+			SplittableRandom r = new SplittableRandom(SeededInts.forSize(SeededInts.defaultSeed(), size));
+			for (int i=0; i < size; ++i) {
+				heap.insert(i, r.nextInt());
+			}
+			long start = System.nanoTime();
+			new MinHeapValidator<Integer,Integer>(heap).check();
+			long sequential = System.nanoTime() - start;
+			start = System.nanoTime();
+			new ParallelHeapValidator<Integer,Integer>(heap).check();
+			long parallel = System.nanoTime() - start;
+			System.out.println(size + " \t" + sequential / 1000000 + " \t" + parallel / 1000000);
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package heaps.trace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Alternates bursts of random inserts with bursts of extractions that
+ * drain part of the queue, so the queue's size swings up and down.
+ * Models a queue fed by batch arrivals.
+ *
+ */
+public class BurstTraceGenerator extends TraceGenerator {
+
+	private final int maxBurst;
+
+	public BurstTraceGenerator() {
+		super();
+		this.maxBurst = 1000;
+	}
+
+	/**
+	 * 
+	 * @param seed
+	 * @param maxBurst largest number of inserts in one burst
+	 */
+	public BurstTraceGenerator(long seed, int maxBurst) {
+		super(seed);
+		this.maxBurst = maxBurst;
+	}
+
+	@Override
+	protected Trace generate(int n, SplittableRandom r) {
+		Trace t = new Trace(2*n);
+		int inserted = 0;
+		int live = 0;
+		while (inserted < n) {
+			int burst = Math.min(n - inserted, 1 + r.nextInt(maxBurst));
+			for (int i=0; i < burst; ++i) {
+				t.insert(r.nextInt());
+			}
+			inserted += burst;
+			live += burst;
+			int drain = r.nextInt(live + 1);
+			for (int i=0; i < drain; ++i) {
+				t.extractMin();
+			}
+			live -= drain;
+		}
+		while (live-- > 0) {
+			t.extractMin();
+		}
+		return t;
+	}
+
+}
@@ -0,0 +1,55 @@
+package heaps.trace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Inserts n random priorities, then issues a storm of n priority
+ * decreases on random elements, as Dijkstra's or Prim's algorithm does,
+ * with an occasional removal.  Finally the queue is drained.
+ *
+ */
+public class DecreaseKeyTraceGenerator extends TraceGenerator {
+
+	public DecreaseKeyTraceGenerator() {
+		super();
+	}
+
+	public DecreaseKeyTraceGenerator(long seed) {
+		super(seed);
+	}
+
+	@Override
+	protected Trace generate(int n, SplittableRandom r) {
+		Trace t = new Trace(3*n);
+		int[] priority = new int[n];
+		boolean[] live = new boolean[n];
+		for (int i=0; i < n; ++i) {
+			priority[i] = r.nextInt(Integer.MAX_VALUE);
+			t.insert(priority[i]);
+			live[i] = true;
+		}
+		int remaining = n;
+		for (int i=0; i < n; ++i) {
+			int id = r.nextInt(n);
+			if (!live[id])
+				continue;
+			//
+			// About one operation in sixteen removes instead of decreasing
+			//
+			if (r.nextInt(16) == 0) {
+				t.remove(id);
+				live[id] = false;
+				remaining--;
+			}
+			else {
+				priority[id] = priority[id] / 2;
+				t.update(id, priority[id]);
+			}
+		}
+		while (remaining-- > 0) {
+			t.extractMin();
+		}
+		return t;
+	}
+
+}
@@ -0,0 +1,51 @@
+package heaps.trace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Inserts elements drawn from only a handful of distinct priorities,
+ * interleaved with extractions.  Models queues keyed by a coarse
+ * priority class rather than a timestamp.
+ *
+ */
+public class DuplicatePriorityTraceGenerator extends TraceGenerator {
+
+	private final int distinct;
+
+	public DuplicatePriorityTraceGenerator() {
+		super();
+		this.distinct = 8;
+	}
+
+	/**
+	 * 
+	 * @param seed
+	 * @param distinct number of different priorities used
+	 */
+	public DuplicatePriorityTraceGenerator(long seed, int distinct) {
+		super(seed);
+		this.distinct = distinct;
+	}
+
+	@Override
+	protected Trace generate(int n, SplittableRandom r) {
+		Trace t = new Trace(2*n);
+		int live = 0;
+		for (int i=0; i < n; ++i) {
+			t.insert(r.nextInt(distinct));
+			live++;
+			//
+			// Extract about one element for every three inserted
+			//
+			if (r.nextInt(3) == 0) {
+				t.extractMin();
+				live--;
+			}
+		}
+		while (live-- > 0) {
+			t.extractMin();
+		}
+		return t;
+	}
+
+}
@@ -0,0 +1,60 @@
+package heaps.trace;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * The classic "hold" model of discrete-event simulation:  a queue of
+ * n/4 events is built, and then each hold extracts the earliest event and
+ * re-inserts it with its priority advanced by a random increment.
+ * The size of the queue stays constant throughout the holds.
+ *
+ */
+public class HoldModelTraceGenerator extends TraceGenerator {
+
+	private final int maxIncrement;
+
+	public HoldModelTraceGenerator() {
+		super();
+		this.maxIncrement = 1000;
+	}
+
+	/**
+	 * 
+	 * @param seed
+	 * @param maxIncrement largest amount by which a held priority advances
+	 */
+	public HoldModelTraceGenerator(long seed, int maxIncrement) {
+		super(seed);
+		this.maxIncrement = maxIncrement;
+	}
+
+	@Override
+	protected Trace generate(int n, SplittableRandom r) {
+		Trace t = new Trace(3*n);
+		//
+		// Track the priorities ourselves, since each re-insert
+		//   depends on the priority just extracted
+		//
+		PriorityQueue<Integer> pending = new PriorityQueue<Integer>();
+		int queued = Math.max(1, n/4);
+		for (int i=0; i < queued && i < n; ++i) {
+			int p = r.nextInt(maxIncrement);
+			t.insert(p);
+			pending.add(p);
+		}
+		for (int i=queued; i < n; ++i) {
+			int p = pending.poll();
+			t.extractMin();
+			p = p + 1 + r.nextInt(maxIncrement);
+			t.insert(p);
+			pending.add(p);
+		}
+		while (!pending.isEmpty()) {
+			pending.poll();
+			t.extractMin();
+		}
+		return t;
+	}
+
+}
@@ -0,0 +1,42 @@
+package heaps.trace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Inserts priorities that are mostly ascending, each displaced by a small
+ * random amount, then extracts everything.  Models timestamps that arrive
+ * slightly out of order.
+ *
+ */
+public class NearSortedTraceGenerator extends TraceGenerator {
+
+	private final int jitter;
+
+	public NearSortedTraceGenerator() {
+		super();
+		this.jitter = 16;
+	}
+
+	/**
+	 * 
+	 * @param seed
+	 * @param jitter largest amount by which a priority may be out of order
+	 */
+	public NearSortedTraceGenerator(long seed, int jitter) {
+		super(seed);
+		this.jitter = jitter;
+	}
+
+	@Override
+	protected Trace generate(int n, SplittableRandom r) {
+		Trace t = new Trace(2*n);
+		for (int i=0; i < n; ++i) {
+			t.insert(i + r.nextInt(jitter + 1));
+		}
+		for (int i=0; i < n; ++i) {
+			t.extractMin();
+		}
+		return t;
+	}
+
+}
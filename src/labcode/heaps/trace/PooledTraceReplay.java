@@ -0,0 +1,19 @@
+package heaps.trace;
+
+/**
+ * TraceReplay against a MinHeap that pools its Entries, so that
+ * steady-state replays allocate no Entry objects once the pool has filled.
+ * Timing this against TraceReplay shows what the allocations cost.
+ *
+ */
+public class PooledTraceReplay extends TraceReplay {
+
+	public PooledTraceReplay() {
+		super(true);
+	}
+
+	public String toString() {
+		return "Pooled " + super.toString();
+	}
+
+}
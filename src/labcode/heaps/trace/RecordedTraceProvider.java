@@ -0,0 +1,41 @@
+package heaps.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import timing.InputProvider;
+import timing.InputSpec;
+
+/**
+ * Supplies a recorded trace to the timing harness.  The size parameter
+ * is the number of operations to replay, taken from the start of the
+ * recording, so a sweep over sizes replays longer and longer prefixes.
+ *
+ */
+public class RecordedTraceProvider implements InputProvider<Trace> {
+
+	private final Path file;
+
+	/**
+	 * Reads the file named by the system property trace.file, so that
+	 * forked runs can be pointed at a recording with -Dtrace.file=...
+	 */
+	public RecordedTraceProvider() {
+		this(Paths.get(System.getProperty("trace.file", "outputs/recorded.trace")));
+	}
+
+	public RecordedTraceProvider(Path file) {
+		this.file = file;
+	}
+
+	@Override
+	public Trace genInput(InputSpec size) {
+		try {
+			return TraceReader.read(file, size.getFirstParameter());
+		} catch (IOException e) {
+			throw new Error("Could not read trace " + file + ": " + e);
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+package heaps.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.ToIntFunction;
+
+import heaps.MinHeap;
+import heaps.MinPriorityQueue;
+import heaps.PQEntry;
+
+/**
+ * A MinPriorityQueue that passes every operation on to another queue
+ * and records it, through a TraceWriter, so the workload can be replayed
+ * offline with TraceReplay against other implementations.
+ * 
+ * Entries returned by this queue record calls to updatePriority as well.
+ * Priorities are stored as ints, so a priority type other than Integer
+ * needs an encoder that preserves its order.
+ * close() must be called to write the last of the trace.
+ *
+ * @param <E> The type of the element (data) contained in the priority queue
+ * @param <P> The type being used for priorities
+ */
+public class RecordingMinPriorityQueue<E, P extends Comparable<P>> implements MinPriorityQueue<E,P>, AutoCloseable {
+
+	/**
+	 * The entry handed to callers.  It is also the element stored in the
+	 * underlying queue, so extractMin can return it without a lookup.
+	 */
+	private class RecordingEntry implements PQEntry<E,P> {
+		private final E   element;
+		private final int id;
+		private PQEntry<RecordingEntry,P> inner;
+
+		private RecordingEntry(E element, int id) {
+			this.element = element;
+			this.id      = id;
+		}
+
+		@Override
+		public E getElement() {
+			return element;
+		}
+
+		@Override
+		public P getPriority() {
+			return inner.getPriority();
+		}
+
+		@Override
+		public void updatePriority(P newPriority) {
+			out.update(id, encoder.applyAsInt(newPriority));
+			inner.updatePriority(newPriority);
+		}
+
+		@Override
+		public String toString() {
+			return "(E=" + element + ", P=" + getPriority() + ")";
+		}
+	}
+
+	private final MinPriorityQueue<RecordingEntry,P> pq;
+	private final ToIntFunction<P> encoder;
+	private final TraceWriter out;
+	private int nextId;
+
+	/**
+	 * Record operations on a new MinHeap with Integer priorities.
+	 * @param file where the trace is written
+	 */
+	public static <E> RecordingMinPriorityQueue<E,Integer> recordMinHeap(Path file) throws IOException {
+		return new RecordingMinPriorityQueue<E,Integer>(new MinHeap<Object,Integer>(), Integer::intValue, file);
+	}
+
+	/**
+	 * 
+	 * @param pq the queue that actually does the work; it must be empty and
+	 *   must be used only through this object from now on
+	 * @param encoder maps each priority to an int with the same ordering
+	 * @param file where the trace is written
+	 */
+	@SuppressWarnings("unchecked")
+	public RecordingMinPriorityQueue(MinPriorityQueue<?,P> pq, ToIntFunction<P> encoder, Path file) throws IOException {
+		if (!pq.isEmpty()) {
+			throw new Error("Can only record operations on an empty queue");
+		}
+		this.pq      = (MinPriorityQueue<RecordingEntry,P>) pq;
+		this.encoder = encoder;
+		this.out     = new TraceWriter(file);
+		this.nextId  = 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return pq.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return pq.size();
+	}
+
+	@Override
+	public PQEntry<E,P> insert(E element, P priority) {
+		out.insert(encoder.applyAsInt(priority));
+		RecordingEntry e = new RecordingEntry(element, nextId++);
+		e.inner = pq.insert(e, priority);
+		return e;
+	}
+
+	@Override
+	public PQEntry<E,P> extractMin() {
+		out.extractMin();
+		PQEntry<RecordingEntry,P> min = pq.extractMin();
+		return min == null ? null : min.getElement();
+	}
+
+	@Override
+	public PQEntry<E,P> peekMin() {
+		PQEntry<RecordingEntry,P> min = pq.peekMin();
+		return min == null ? null : min.getElement();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean remove(PQEntry<E,P> entry) {
+		RecordingEntry e = (RecordingEntry) entry;
+		out.remove(e.id);
+		return pq.remove(e.inner);
+	}
+
+	@Override
+	public Iterator<PQEntry<E,P>> iterator() {
+		final Iterator<PQEntry<RecordingEntry,P>> it = pq.iterator();
+		return new Iterator<PQEntry<E,P>>() {
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public PQEntry<E,P> next() {
+				return it.next().getElement();
+			}
+
+		};
+	}
+
+	/**
+	 * Write out the rest of the trace.
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (PQEntry<E,P> e : this) {
+			s.append(e).append(' ');
+		}
+		return s.toString().trim();
+	}
+
+}
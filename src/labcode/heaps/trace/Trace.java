@@ -0,0 +1,123 @@
+package heaps.trace;
+
+import java.util.Arrays;
+
+/**
+ * A sequence of MinPriorityQueue operations, stored compactly as parallel
+ * arrays so that traces of millions of operations stay cheap to hold and
+ * to replay.
+ * 
+ * Elements are identified by ids that the trace assigns in order of
+ * insertion (0, 1, 2, ...), and priorities are ints.  An UPDATE or REMOVE
+ * refers to the entry returned by the INSERT of the same id.
+ *
+ */
+public class Trace {
+
+	public final static byte INSERT      = 0;
+	public final static byte EXTRACT_MIN = 1;
+	public final static byte UPDATE      = 2;
+	public final static byte REMOVE      = 3;
+
+	private byte[] ops;
+	private int[]  ids;
+	private int[]  priorities;
+	private int    length;
+	private int    numIds;
+
+	public Trace() {
+		this(16);
+	}
+
+	/**
+	 * 
+	 * @param capacity anticipated number of operations
+	 */
+	public Trace(int capacity) {
+		capacity = Math.max(1, capacity);
+		this.ops        = new byte[capacity];
+		this.ids        = new int[capacity];
+		this.priorities = new int[capacity];
+		this.length     = 0;
+		this.numIds     = 0;
+	}
+
+	/**
+	 * Record an insert of a new element.
+	 * @param priority its priority
+	 * @return the id of the new element
+	 */
+	public int insert(int priority) {
+		int id = numIds++;
+		add(INSERT, id, priority);
+		return id;
+	}
+
+	public void extractMin() {
+		add(EXTRACT_MIN, -1, 0);
+	}
+
+	public void update(int id, int priority) {
+		add(UPDATE, id, priority);
+	}
+
+	public void remove(int id) {
+		add(REMOVE, id, 0);
+	}
+
+	/**
+	 * Append an operation exactly as given, for readers of stored traces.
+	 */
+	public void add(byte op, int id, int priority) {
+		if (op < INSERT || op > REMOVE) {
+			throw new Error("Unknown trace operation " + op);
+		}
+		if (length == ops.length) {
+			int capacity = 2 * length;
+			ops        = Arrays.copyOf(ops, capacity);
+			ids        = Arrays.copyOf(ids, capacity);
+			priorities = Arrays.copyOf(priorities, capacity);
+		}
+		ops[length]        = op;
+		ids[length]        = id;
+		priorities[length] = priority;
+		length++;
+		if (op == INSERT) {
+			numIds = Math.max(numIds, id + 1);
+		}
+	}
+
+	/**
+	 * 
+	 * @return number of operations in the trace
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * 
+	 * @return number of distinct element ids, one per INSERT
+	 */
+	public int numIds() {
+		return numIds;
+	}
+
+	public byte getOp(int i) {
+		return ops[i];
+	}
+
+	public int getId(int i) {
+		return ids[i];
+	}
+
+	public int getPriority(int i) {
+		return priorities[i];
+	}
+
+	@Override
+	public String toString() {
+		return "Trace of " + length + " operations on " + numIds + " elements";
+	}
+
+}
@@ -0,0 +1,42 @@
+package heaps.trace;
+
+import java.util.SplittableRandom;
+
+import timing.InputProvider;
+import timing.InputSpec;
+import timing.utils.SeededInts;
+
+/**
+ * Base class for InputProviders that produce a Trace modelling some
+ * pattern of priority queue usage.  The size parameter is the number of
+ * elements inserted; the trace may contain more operations than that.
+ * Traces are reproducible: the same seed and size give the same trace.
+ *
+ */
+abstract public class TraceGenerator implements InputProvider<Trace> {
+
+	private final long seed;
+
+	public TraceGenerator() {
+		this(SeededInts.defaultSeed());
+	}
+
+	public TraceGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	public Trace genInput(InputSpec size) {
+		int n = size.getFirstParameter();
+		return generate(n, new SplittableRandom(SeededInts.forSize(seed, n)));
+	}
+
+	/**
+	 * 
+	 * @param n number of elements to insert
+	 * @param r source of randomness for this trace
+	 * @return
+	 */
+	abstract protected Trace generate(int n, SplittableRandom r);
+
+}
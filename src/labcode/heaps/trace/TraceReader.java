@@ -0,0 +1,52 @@
+package heaps.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file written by TraceWriter back into a Trace.
+ *
+ */
+public class TraceReader {
+
+	/**
+	 * 
+	 * @param file the trace file
+	 * @return the whole trace
+	 */
+	public static Trace read(Path file) throws IOException {
+		return read(file, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 
+	 * @param file the trace file
+	 * @param maxOps read no more than this many operations
+	 * @return a prefix of the trace, which is itself a valid trace
+	 */
+	public static Trace read(Path file, int maxOps) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < 4 || buffer.getInt() != TraceWriter.MAGIC) {
+				throw new Error(file + " was not written by TraceWriter");
+			}
+			Trace t = new Trace((int) Math.min(maxOps, channel.size() / 3 + 1));
+			while (buffer.hasRemaining() && t.length() < maxOps) {
+				byte op = buffer.get();
+				switch (op) {
+				case Trace.INSERT:      t.insert(buffer.getInt()); break;
+				case Trace.EXTRACT_MIN: t.extractMin(); break;
+				case Trace.UPDATE:      t.update(buffer.getInt(), buffer.getInt()); break;
+				case Trace.REMOVE:      t.remove(buffer.getInt()); break;
+				default:
+					throw new Error("Corrupt trace " + file + ": unknown operation " + op);
+				}
+			}
+			return t;
+		}
+	}
+
+}
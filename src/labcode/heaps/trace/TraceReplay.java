@@ -0,0 +1,113 @@
+package heaps.trace;
+
+import java.util.function.Function;
+
+import heaps.MinHeap;
+import heaps.MinPriorityQueue;
+import heaps.PQEntry;
+import timing.Algorithm;
+import timing.Ticker;
+
+/**
+ * Replays a Trace against a MinPriorityQueue, so that the queue can be
+ * timed on a realistic workload rather than on HeapSort.
+ * The result is a checksum over the extracted elements, which lets two
+ * implementations be checked for agreement on the same trace.
+ *
+ */
+public class TraceReplay implements Algorithm<Trace,Long> {
+
+	private final Function<Ticker, MinPriorityQueue<Integer,Integer>> factory;
+	private final boolean pooled;
+	private Trace trace;
+	private MinPriorityQueue<Integer,Integer> pq;
+	private PQEntry<Integer,Integer>[] handles;
+	private Ticker ticker;
+	private long checksum;
+
+	/**
+	 * Replay against a MinHeap
+	 */
+	public TraceReplay() {
+		this(ticker -> new MinHeap<Integer,Integer>(16, ticker));
+	}
+
+	/**
+	 * 
+	 * @param factory creates the queue to be replayed against, given the Ticker for the run
+	 */
+	public TraceReplay(Function<Ticker, MinPriorityQueue<Integer,Integer>> factory) {
+		this.factory = factory;
+		this.pooled  = false;
+	}
+
+	/**
+	 * 
+	 * @param pooled if true, replay against a pooled MinHeap and recycle
+	 *   each Entry once it has been extracted or removed
+	 */
+	protected TraceReplay(boolean pooled) {
+		this.factory = ticker -> new MinHeap<Integer,Integer>(16, ticker, pooled);
+		this.pooled  = pooled;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void reset(Ticker ticker) {
+		this.ticker   = ticker;
+		this.pq       = factory.apply(ticker);
+		this.handles  = (PQEntry<Integer,Integer>[]) new PQEntry<?,?>[trace.numIds()];
+		this.checksum = 0;
+	}
+
+	@Override
+	public void run() {
+		for (int i=0; i < trace.length(); ++i) {
+			int id = trace.getId(i);
+			switch (trace.getOp(i)) {
+			case Trace.INSERT:
+				handles[id] = pq.insert(id, trace.getPriority(i));
+				break;
+			case Trace.EXTRACT_MIN:
+				PQEntry<Integer,Integer> e = pq.extractMin();
+				if (e != null) {
+					checksum = 31 * checksum + e.getPriority();
+					handles[e.getElement()] = null;
+					recycle(e);
+				}
+				break;
+			case Trace.UPDATE:
+				if (handles[id] != null)
+					handles[id].updatePriority(trace.getPriority(i));
+				break;
+			case Trace.REMOVE:
+				if (handles[id] != null && pq.remove(handles[id])) {
+					recycle(handles[id]);
+					handles[id] = null;
+				}
+				break;
+			}
+			ticker.tick();
+		}
+	}
+
+	private void recycle(PQEntry<Integer,Integer> e) {
+		if (pooled)
+			((MinHeap<Integer,Integer>)pq).recycle(e);
+	}
+
+	@Override
+	public void loadInput(Trace input) {
+		this.trace = input;
+	}
+
+	@Override
+	public Long getResults() {
+		return checksum;
+	}
+
+	public String toString() {
+		return trace == null ? "Trace replay" : "Replay of " + trace;
+	}
+
+}
@@ -0,0 +1,95 @@
+package heaps.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes trace operations to a file in a compact binary form, through
+ * a direct buffer that is handed to a FileChannel only when it fills.
+ * 
+ * Each record starts with the operation byte.  An INSERT is followed by
+ * its priority (its id is implied by the order of inserts), an UPDATE by
+ * the id and the new priority, a REMOVE by the id, and an EXTRACT_MIN by
+ * nothing.  TraceReader reads the file back into a Trace.
+ *
+ */
+public class TraceWriter implements AutoCloseable {
+
+	final static int MAGIC = 0x48505154;  // "HPQT"
+
+	private final FileChannel channel;
+	private final ByteBuffer  buffer;
+
+	public TraceWriter(Path file) throws IOException {
+		this.channel = FileChannel.open(file, 
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		this.buffer = ByteBuffer.allocateDirect(1 << 16);
+		buffer.putInt(MAGIC);
+	}
+
+	public void insert(int priority) {
+		room(5);
+		buffer.put(Trace.INSERT);
+		buffer.putInt(priority);
+	}
+
+	public void extractMin() {
+		room(1);
+		buffer.put(Trace.EXTRACT_MIN);
+	}
+
+	public void update(int id, int priority) {
+		room(9);
+		buffer.put(Trace.UPDATE);
+		buffer.putInt(id);
+		buffer.putInt(priority);
+	}
+
+	public void remove(int id) {
+		room(5);
+		buffer.put(Trace.REMOVE);
+		buffer.putInt(id);
+	}
+
+	/**
+	 * Write an entire Trace, for example one produced by a TraceGenerator.
+	 */
+	public void write(Trace t) {
+		for (int i=0; i < t.length(); ++i) {
+			switch (t.getOp(i)) {
+			case Trace.INSERT:      insert(t.getPriority(i)); break;
+			case Trace.EXTRACT_MIN: extractMin(); break;
+			case Trace.UPDATE:      update(t.getId(i), t.getPriority(i)); break;
+			case Trace.REMOVE:      remove(t.getId(i)); break;
+			}
+		}
+	}
+
+	private void room(int bytes) {
+		if (buffer.remaining() < bytes) {
+			drain();
+		}
+	}
+
+	private void drain() {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			throw new Error("Could not write trace: " + e);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		drain();
+		channel.close();
+	}
+
+}
@@ -0,0 +1,47 @@
+package heaps.util;
+
+import java.util.Arrays;
+
+/**
+ * HeapStorage in a single array, grown by doubling or by half.
+ *
+ */
+class ArrayStorage<T> extends HeapStorage<T> {
+
+	private final boolean doubling;
+	private Object[] items;
+
+	ArrayStorage(int initialCapacity, boolean doubling) {
+		super(initialCapacity);
+		this.doubling = doubling;
+		this.items = new Object[Math.max(0, initialCapacity)];
+	}
+
+	@Override
+	public int capacity() {
+		return items.length;
+	}
+
+	@Override
+	protected int grownCapacity(int needed) {
+		int grown = doubling ? 2 * items.length : items.length + (items.length >> 1);
+		return Math.max(needed, Math.max(grown, 10));
+	}
+
+	@Override
+	protected void reallocate(int newCapacity) {
+		items = Arrays.copyOf(items, newCapacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T load(int index) {
+		return (T) items[index];
+	}
+
+	@Override
+	protected void store(int index, T item) {
+		items[index] = item;
+	}
+
+}
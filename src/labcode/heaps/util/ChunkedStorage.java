@@ -0,0 +1,70 @@
+package heaps.util;
+
+import java.util.Arrays;
+
+/**
+ * HeapStorage in fixed-size chunks.  Growing allocates one more chunk
+ * and at most copies the small array of chunk references, so there is
+ * never a large contiguous copy; shrinking just drops chunks.
+ *
+ */
+class ChunkedStorage<T> extends HeapStorage<T> {
+
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private Object[][] chunks;
+	private int numChunks;
+
+	ChunkedStorage(int initialCapacity) {
+		super(initialCapacity);
+		this.chunks = new Object[Math.max(1, chunksFor(initialCapacity))][];
+		reallocate(initialCapacity);
+	}
+
+	private static int chunksFor(int capacity) {
+		return (capacity + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+	}
+
+	@Override
+	public int capacity() {
+		return numChunks << CHUNK_BITS;
+	}
+
+	@Override
+	protected int grownCapacity(int needed) {
+		return Math.max(needed, capacity() + CHUNK_SIZE);
+	}
+
+	@Override
+	protected int roundCapacity(int wanted) {
+		return chunksFor(wanted) << CHUNK_BITS;
+	}
+
+	@Override
+	protected void reallocate(int newCapacity) {
+		int wanted = chunksFor(newCapacity);
+		if (wanted > chunks.length) {
+			chunks = Arrays.copyOf(chunks, Math.max(wanted, 2 * chunks.length));
+		}
+		while (numChunks < wanted) {
+			chunks[numChunks++] = new Object[CHUNK_SIZE];
+		}
+		while (numChunks > wanted) {
+			chunks[--numChunks] = null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T load(int index) {
+		return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	@Override
+	protected void store(int index, T item) {
+		chunks[index >>> CHUNK_BITS][index & CHUNK_MASK] = item;
+	}
+
+}
@@ -0,0 +1,34 @@
+package heaps.util;
+
+/**
+ * How a HeapStorage grows when it is full.
+ *
+ */
+public enum GrowthPolicy {
+
+	/** One array, doubled when full */
+	DOUBLING,
+
+	/** One array, grown by half when full, as ArrayList does */
+	ONE_AND_HALF,
+
+	/** Fixed-size chunks added one at a time, so growing never copies the entries */
+	CHUNKED;
+
+	/**
+	 * 
+	 * @param initialCapacity capacity to allocate up front; auto-shrinking never goes below it
+	 * @return new empty storage that grows by this policy
+	 */
+	public <T> HeapStorage<T> newStorage(int initialCapacity) {
+		switch (this) {
+		case CHUNKED:
+			return new ChunkedStorage<T>(initialCapacity);
+		case DOUBLING:
+			return new ArrayStorage<T>(initialCapacity, true);
+		default:
+			return new ArrayStorage<T>(initialCapacity, false);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package heaps.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the items of a HeapStorage in storage order, for
+ * streams that do not care about order, such as counting the entries of
+ * a heap below some priority.  It knows its exact size and splits its
+ * range of indices in half, so parallel streams divide the work evenly.
+ *
+ * The range and modification count are read at the first traversal or
+ * split, and any change to the storage after that, even a swap, causes
+ * a ConcurrentModificationException.
+ *
+ * @param <T> type of the stored items
+ */
+public class HeapSpliterator<T> implements Spliterator<T> {
+
+	private final HeapStorage<T> storage;
+	private int index;
+	private int fence;             // -1 until first used
+	private int expectedModCount;
+
+	public HeapSpliterator(HeapStorage<T> storage) {
+		this(storage, 0, -1, 0);
+	}
+
+	private HeapSpliterator(HeapStorage<T> storage, int index, int fence, int expectedModCount) {
+		this.storage = storage;
+		this.index = index;
+		this.fence = fence;
+		this.expectedModCount = expectedModCount;
+	}
+
+	private int getFence() {
+		if (fence < 0) {
+			expectedModCount = storage.getModCount();
+			fence = storage.size();
+		}
+		return fence;
+	}
+
+	private void checkModCount() {
+		if (storage.getModCount() != expectedModCount) {
+			throw new ConcurrentModificationException("Heap changed while it was being traversed");
+		}
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		int hi = getFence();
+		if (index >= hi) {
+			return false;
+		}
+		T item = storage.load(index++);
+		action.accept(item);
+		checkModCount();
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		int hi = getFence();
+		for (; index < hi; ++index) {
+			action.accept(storage.load(index));
+		}
+		checkModCount();
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int hi = getFence();
+		int mid = (index + hi) >>> 1;
+		if (mid <= index) {
+			return null;
+		}
+		HeapSpliterator<T> prefix = new HeapSpliterator<T>(storage, index, mid, expectedModCount);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return getFence() - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL;
+	}
+
+}
@@ -0,0 +1,169 @@
+package heaps.util;
+
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Array storage for a binary heap, with control over its capacity.
+ * Unlike ArrayList, it can give memory back on its own: with auto-shrink
+ * on, removing down to a quarter of capacity halves the excess, so a heap
+ * that spikes and then idles does not keep its peak footprint.  The gap
+ * between growing (when full) and shrinking (at a quarter) keeps a heap
+ * that hovers around one size from resizing back and forth.
+ * 
+ * The time spent resizing is recorded, so that pauses can be reported.
+ * 
+ * Unlike other lists, set() counts as a modification:  a heap reorders
+ * its items by swapping them, and a traversal that misses a swap can
+ * skip or repeat items, so iterators fail fast on swaps too.
+ *
+ * @param <T> type of the stored items
+ */
+public abstract class HeapStorage<T> extends AbstractList<T> implements RandomAccess {
+
+	protected int size;
+	private final int minCapacity;
+	private boolean autoShrink;
+
+	private long resizes;
+	private long resizeNanos;
+	private long longestResizeNanos;
+
+	protected HeapStorage(int minCapacity) {
+		this.minCapacity = Math.max(1, minCapacity);
+	}
+
+	/**
+	 * 
+	 * @return number of items that fit without growing
+	 */
+	abstract public int capacity();
+
+	/**
+	 * 
+	 * @param needed capacity that must be reached
+	 * @return capacity to grow to
+	 */
+	abstract protected int grownCapacity(int needed);
+
+	/**
+	 * 
+	 * @param wanted capacity asked for
+	 * @return capacity that reallocate(wanted) would actually give
+	 */
+	protected int roundCapacity(int wanted) {
+		return wanted;
+	}
+
+	/**
+	 * Change capacity, keeping the first size items.
+	 * @param newCapacity at least size
+	 */
+	abstract protected void reallocate(int newCapacity);
+
+	abstract protected T load(int index);
+
+	abstract protected void store(int index, T item);
+
+	/**
+	 * 
+	 * @param autoShrink whether removals may shrink the storage
+	 */
+	public void setAutoShrink(boolean autoShrink) {
+		this.autoShrink = autoShrink;
+	}
+
+	/**
+	 * Release all capacity beyond the current size.
+	 */
+	public void trimToSize() {
+		if (roundCapacity(size) < capacity()) {
+			resize(size);
+		}
+	}
+
+	/**
+	 * 
+	 * @return number of changes so far, including swaps; for detecting concurrent modification
+	 */
+	public int getModCount() {
+		return modCount;
+	}
+
+	public long getResizeCount() {
+		return resizes;
+	}
+
+	public Duration getResizeTime() {
+		return Duration.ofNanos(resizeNanos);
+	}
+
+	public Duration getLongestResize() {
+		return Duration.ofNanos(longestResizeNanos);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		return load(index);
+	}
+
+	@Override
+	public T set(int index, T item) {
+		checkIndex(index);
+		T old = load(index);
+		store(index, item);
+		++modCount;
+		return old;
+	}
+
+	@Override
+	public boolean add(T item) {
+		if (size == capacity()) {
+			resize(grownCapacity(size + 1));
+		}
+		store(size++, item);
+		++modCount;
+		return true;
+	}
+
+	@Override
+	public T remove(int index) {
+		checkIndex(index);
+		T old = load(index);
+		for (int i=index; i < size - 1; ++i) {
+			store(i, load(i+1));
+		}
+		store(--size, null);
+		++modCount;
+		if (autoShrink && size <= capacity() / 4) {
+			int target = Math.max(minCapacity, 2 * size);
+			if (roundCapacity(target) < capacity()) {  // otherwise reallocating would free nothing
+				resize(target);
+			}
+		}
+		return old;
+	}
+
+	private void resize(int newCapacity) {
+		long start = System.nanoTime();
+		reallocate(newCapacity);
+		long took = System.nanoTime() - start;
+		resizes++;
+		resizeNanos += took;
+		longestResizeNanos = Math.max(longestResizeNanos, took);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+	}
+
+}
@@ -1,16 +1,27 @@
 package heaps.util;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.io.IOException;
+import java.util.function.IntFunction;
 
 import heaps.MinHeap;
 import heaps.PQEntry;
 
+/**
+ * Text renderings of a heap.  Each rendering is written straight to an
+ * Appendable (a StringBuilder, a Writer, System.out) in time proportional
+ * to its output, and only the entries shown are visited, so limiting the
+ * depth or number of nodes keeps a dump of a huge heap small and fast.
+ */
 public class HeapToStrings {
-	
+
 	// ************ CLASS METHODS *******************
-	
-	
+
+	public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+	// Levels of the tree shown by the summary:  at most 31 nodes
+	private static final int SUMMARY_DEPTH = 5;
+
+
 	public static PQEntry<?,?>[] toEntriesArray(MinHeap<?,?> heap) {
 		PQEntry<?,?>[] array = new PQEntry<?,?>[heap.size()];
 		int i=0;
@@ -19,97 +30,193 @@ public class HeapToStrings {
 		}
 		return array;
 	}
-	
+
 
 	public static String toTree(MinHeap<?,?> heap) {
-		return new HeapToStrings(heap).formatAsTree();
+		return toTree(heap, NO_LIMIT, NO_LIMIT);
+	}
+
+	/**
+	 *
+	 * @param heap the heap to show
+	 * @param maxDepth number of levels to show at most
+	 * @param maxNodes number of entries to show at most; only whole levels are shown
+	 * @return the first levels of the heap as a tree
+	 */
+	public static String toTree(MinHeap<?,?> heap, int maxDepth, int maxNodes) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeTree(heap, sb, maxDepth, maxNodes);
+		} catch (IOException e) {
+			throw new Error("StringBuilder cannot fail", e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Format nodes already laid out in heap order, for example a
+	 *  snapshot of a heap taken before it changed.
+	 * @param nodes one object per index of heap storage, shown by toString
+	 * @return the nodes as a tree
+	 */
+	public static String toTree(Object[] nodes) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			new HeapToStrings(nodes.length, i -> nodes[i]).formatAsTree(sb, NO_LIMIT, NO_LIMIT);
+		} catch (IOException e) {
+			throw new Error("StringBuilder cannot fail", e);
+		}
+		return sb.toString();
+	}
+
+	public static void writeTree(MinHeap<?,?> heap, Appendable out, int maxDepth, int maxNodes) throws IOException {
+		new HeapToStrings(heap).formatAsTree(out, maxDepth, maxNodes);
 	}
 
 	public static String toOutline(MinHeap<?,?> heap) {
-		return new HeapToStrings(heap).formatVertically();
-	}
-	
-	
-	
-	
-	private static String center(String s, int width) {
-		if (s.length() > width) {
-			throw new Error("String  " + s + " already longer than " + width);
-		}
-		String ans = s;
-		boolean left = true;
-		while (ans.length() < width) {
-			if (left)
-				ans = " " + ans;
-			else
-				ans = ans + " ";
-			left = !left;
+		return toOutline(heap, NO_LIMIT, NO_LIMIT);
+	}
+
+	/**
+	 *
+	 * @param heap the heap to show
+	 * @param maxDepth number of levels to show at most
+	 * @param maxNodes number of entries to show at most
+	 * @return the heap as an indented outline
+	 */
+	public static String toOutline(MinHeap<?,?> heap, int maxDepth, int maxNodes) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeOutline(heap, sb, maxDepth, maxNodes);
+		} catch (IOException e) {
+			throw new Error("StringBuilder cannot fail", e);
 		}
-		return ans;
+		return sb.toString();
 	}
-	
-	
+
+	public static void writeOutline(MinHeap<?,?> heap, Appendable out, int maxDepth, int maxNodes) throws IOException {
+		new HeapToStrings(heap).formatVertically(out, maxDepth, maxNodes);
+	}
+
+	/**
+	 * Write the entries in storage order, separated by spaces, as
+	 *  MinHeap.toString() shows them, but stopping after maxNodes entries.
+	 * @param heap the heap to show
+	 * @param out where to write
+	 * @param maxNodes number of entries to show at most
+	 */
+	public static void writeEntries(MinHeap<?,?> heap, Appendable out, int maxNodes) throws IOException {
+		int size = heap.uncountedSize();
+		int shown = Math.min(size, maxNodes);
+		for (int i=0; i < shown; ++i) {
+			if (i > 0) {
+				out.append(' ');
+			}
+			out.append(String.valueOf(heap.entryAt(i)));
+		}
+		if (shown < size) {
+			out.append(" ... ").append(String.valueOf(size - shown)).append(" more");
+		}
+	}
+
+	/**
+	 * A short description of a heap of any size:  its size and height,
+	 *  and its first few levels as a tree.
+	 * @param heap the heap to describe
+	 * @return the summary
+	 */
+	public static String toSummary(MinHeap<?,?> heap) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeSummary(heap, sb);
+		} catch (IOException e) {
+			throw new Error("StringBuilder cannot fail", e);
+		}
+		return sb.toString();
+	}
+
+	public static void writeSummary(MinHeap<?,?> heap, Appendable out) throws IOException {
+		HeapToStrings h = new HeapToStrings(heap);
+		out.append("MinHeap of ").append(String.valueOf(h.size))
+			.append(" entries in ").append(String.valueOf(h.treeHeight())).append(" levels\n");
+		h.formatAsTree(out, SUMMARY_DEPTH, NO_LIMIT);
+	}
+
+
+	private static void spaces(Appendable out, int n) throws IOException {
+		for (int i=0; i < n; ++i) {
+			out.append(' ');
+		}
+	}
+
 	//
 	// The template type can be ? because we don't need the type
 	//   for anything when we print.
 	//
-	final private PQEntry<?,?>[] heapEntries;
-	
+	final private int size;
+	final private IntFunction<?> heapEntries;
+
 
 	private HeapToStrings(MinHeap<?,?> heap) {
-		this.heapEntries = toEntriesArray(heap);
+		this(heap.uncountedSize(), heap::entryAt);
 	}
-	
-	private String spacing(int level) {
-		String ans = "";
-		for (int i=0; i < level; ++i) {
-			ans = ans + "  ";
-		}
-		return ans;
+
+	private HeapToStrings(int size, IntFunction<?> nodes) {
+		this.size = size;
+		this.heapEntries = nodes;
 	}
 
 	/**
 	 * Formats the tree with indentation to show level.
 	 * This is NOT the way you see heaps in a text, but it is
 	 * common to show nested and recursive structures this way.
+	 * A subtree below maxDepth is shown as "..."
 	 * @param n index into the heap
 	 * @param level depth of recursion
-	 * @return a String representing this node and below
+	 * @param budget number of entries still to be shown, counted down in budget[0]
 	 */
-	private String formatVertically(int n, int level) {
-		if (n == -1 || n >= heapEntries.length || heapEntries[n] == null) 
-			return "";
-		else {
-			String ans = spacing(level);
-			ans = ans + heapEntries[n] + "\n";
-			ans = ans + formatVertically(getLeftChildIndex(n),  level+1);
-			ans = ans + formatVertically(getRightChildIndex(n), level+1);
-			return ans;
+	private void formatVertically(Appendable out, int n, int level, int maxDepth, int[] budget) throws IOException {
+		if (n == -1 || budget[0] == 0 || heapEntries.apply(n) == null)
+			return;
+		spaces(out, 2*level);
+		if (level >= maxDepth) {
+			out.append("...\n");
+			return;
 		}
+		out.append(String.valueOf(heapEntries.apply(n))).append('\n');
+		budget[0]--;
+		formatVertically(out, getLeftChildIndex(n),  level+1, maxDepth, budget);
+		formatVertically(out, getRightChildIndex(n), level+1, maxDepth, budget);
 	}
-	
-	private String formatVertically() {
-		return formatVertically(1, 0);
+
+	private void formatVertically(Appendable out, int maxDepth, int maxNodes) throws IOException {
+		int[] budget = { maxNodes };
+		formatVertically(out, size == 0 ? -1 : 0, 0, maxDepth, budget);
+		int shown = maxNodes - budget[0];
+		if (shown < size) {
+			notShown(out, shown);
+		}
 	}
 
-	private int getParentIndex(int child) {
-		return (child-1) / 2;
+	private void notShown(Appendable out, int shown) throws IOException {
+		out.append("... ").append(String.valueOf(size - shown))
+			.append(" of ").append(String.valueOf(size)).append(" entries not shown\n");
 	}
 
 	private int getLeftChildIndex(int parent) {
 		int ans = parent*2+1;
-		return ans >= heapEntries.length ? -1 : ans;
+		return ans >= size ? -1 : ans;
 	}
 
-	
+
 	private int getRightChildIndex(int parent) {
 		int ans = parent*2+2;
-		return ans >= heapEntries.length ? -1 : ans;
+		return ans >= size ? -1 : ans;
 	}
 
 	private int treeHeight() {
 		int ans = 0;
-		int s   = heapEntries.length;
+		int s   = size;
 		while(s != 0) {
 			s = s >>> 1;
 		ans = ans + 1;
@@ -119,56 +226,57 @@ public class HeapToStrings {
 
 
 
-	private String formatEntry(String s, int maxWidth, int centeredOver) {
-		String entry = center(s, maxWidth);
+	/**
+	 * Write s centered over centeredOver slots of maxWidth.
+	 */
+	private void formatEntry(Appendable out, String s, int maxWidth, int centeredOver) throws IOException {
 		int answidth =  maxWidth*centeredOver + (centeredOver-1);
-		return center(entry,answidth);
+		if (s.length() > maxWidth) {
+			throw new Error("String  " + s + " already longer than " + maxWidth);
+		}
+		// Center in maxWidth, then center that in answidth
+		int inner = maxWidth - s.length();
+		int outer = answidth - maxWidth;
+		spaces(out, (inner - inner/2) + (outer - outer/2));
+		out.append(s);
+		spaces(out, inner/2 + outer/2);
 	}
-	
+
 	/**
-	 * Returns a representation of the heap in the form one usually sees.
+	 * Writes the heap in the form one usually sees.
 	 *   It looks like a tree with the root centered on the first line.
-	 * @return the heap as a tree
+	 *   Only whole levels are shown, as many as maxDepth and maxNodes allow.
 	 */
-	public String formatAsTree() {
+	private void formatAsTree(Appendable out, int maxDepth, int maxNodes) throws IOException {
 		int height = treeHeight();
+		int shownLevels = height;
+		while (shownLevels > 0 && (shownLevels > maxDepth || (1L << shownLevels) - 1 > maxNodes)) {
+			shownLevels--;
+		}
+		int shown = Math.min(size, (1 << shownLevels) - 1);
 		int maxWidth = 0;
-		for (int i = 0; i < heapEntries.length; ++i) {
-			Object thing = heapEntries[i];
+		for (int i = 0; i < shown; ++i) {
+			Object thing = heapEntries.apply(i);
 			String s = thing + "";
 			maxWidth = Math.max(maxWidth, s.length());
 		}
 		if (maxWidth % 2 == 0)
 			maxWidth = maxWidth + 1;
-		int frontier = (1 << (height-1)) & 0x7fffffff;
-		String ans = "";
-		List<Integer> lnodes = new LinkedList<Integer>();
-		List<Integer> cnodes = new LinkedList<Integer>();
-		if (heapEntries.length > 0)
-			lnodes.add(0);
-		while (!lnodes.isEmpty()) {
-			while (!lnodes.isEmpty()) {
-				int index = lnodes.remove(0);
-				String e = index == -1 ? "" : ""+heapEntries[index];
-				String s = formatEntry(e, maxWidth, frontier);
-				ans = ans + s;
-				if (!lnodes.isEmpty()) {
-					ans = ans + " ";
-				}
-				if (index != -1) {
-					for (int c : new int[] { getLeftChildIndex(index), getRightChildIndex(index) }) {
-						if (c != -1) 
-							cnodes.add(c);
-					}
+		int frontier = (1 << (shownLevels-1)) & 0x7fffffff;
+		for (int first = 0; first < shown; first = 2*first + 1) {
+			int last = Math.min(shown, 2*first + 1);
+			for (int index = first; index < last; ++index) {
+				formatEntry(out, "" + heapEntries.apply(index), maxWidth, frontier);
+				if (index < last - 1) {
+					out.append(' ');
 				}
 			}
-			ans = ans + "\n";
+			out.append('\n');
 			frontier = frontier / 2;
-			lnodes = cnodes;
-			cnodes = new LinkedList<Integer>();
 		}
-
-		return ans;
+		if (shown < size) {
+			notShown(out, shown);
+		}
 	}
-	
+
 }
@@ -0,0 +1,114 @@
+package heaps.util;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import heaps.MinHeap;
+import heaps.PQEntry;
+
+/**
+ * Visits the entries of a MinHeap from smallest to largest priority
+ * without changing the heap.  The smallest entry not yet visited is
+ * always a child of one already visited, so a small frontier heap of
+ * indices holds the candidates:  visiting the k smallest entries takes
+ * O(k log k) time and a frontier of at most k+1 indices, no matter how
+ * large the heap is.
+ *
+ * Entries are read through MinHeap.entryAt, so the heap's ticker and the
+ * positions of its entries are left alone.  Changing the heap while
+ * iterating causes a ConcurrentModificationException.
+ *
+ * @param <E> element type of the heap
+ * @param <P> priority type of the heap
+ */
+public class SortedHeapIterator<E, P extends Comparable<P>> implements Iterator<PQEntry<E,P>> {
+
+	private final MinHeap<E,P> heap;
+	private final int expectedModCount;
+
+	// Binary min-heap of indices into heap, ordered by their priorities
+	private int[] frontier;
+	private int count;
+
+	public SortedHeapIterator(MinHeap<E,P> heap) {
+		this(heap, 15);
+	}
+
+	/**
+	 * 
+	 * @param heap the heap to visit
+	 * @param expected number of entries likely to be visited, so that the frontier need not grow
+	 */
+	public SortedHeapIterator(MinHeap<E,P> heap, int expected) {
+		this.heap = heap;
+		this.frontier = new int[Math.max(1, expected) + 1];
+		this.expectedModCount = heap.getModCount();
+		if (heap.entryAt(0) != null) {
+			push(0);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return count > 0;
+	}
+
+	@Override
+	public PQEntry<E,P> next() {
+		if (count == 0) {
+			throw new NoSuchElementException();
+		}
+		if (heap.getModCount() != expectedModCount) {
+			throw new ConcurrentModificationException("Heap changed while it was being traversed");
+		}
+		int index = frontier[0];
+		frontier[0] = frontier[--count];
+		siftDown(0);
+		PQEntry<E,P> ans = heap.entryAt(index);
+		for (int c = 2*index + 1; c <= 2*index + 2; ++c) {
+			if (heap.entryAt(c) != null) {
+				push(c);
+			}
+		}
+		return ans;
+	}
+
+	private boolean less(int a, int b) {
+		return heap.entryAt(frontier[a]).getPriority().compareTo(heap.entryAt(frontier[b]).getPriority()) < 0;
+	}
+
+	private void swap(int a, int b) {
+		int t = frontier[a];
+		frontier[a] = frontier[b];
+		frontier[b] = t;
+	}
+
+	private void push(int index) {
+		if (count == frontier.length) {
+			frontier = Arrays.copyOf(frontier, 2 * count);
+		}
+		int i = count++;
+		frontier[i] = index;
+		while (i > 0 && less(i, (i-1)/2)) {
+			swap(i, (i-1)/2);
+			i = (i-1)/2;
+		}
+	}
+
+	private void siftDown(int i) {
+		while (2*i + 1 < count) {
+			int c = 2*i + 1;
+			if (c + 1 < count && less(c + 1, c)) {
+				c = c + 1;
+			}
+			if (!less(c, i)) {
+				return;
+			}
+			swap(i, c);
+			i = c;
+		}
+	}
+
+}
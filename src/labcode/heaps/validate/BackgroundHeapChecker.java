@@ -0,0 +1,298 @@
+package heaps.validate;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import heaps.MinHeap;
+import heaps.PQEntry;
+
+/**
+ * Checks a MinHeap from a low-priority background thread while the
+ * program keeps using it.  Every period, a window of the heap is copied
+ * while holding a lock that the program also holds whenever it changes
+ * the heap.  Only the window is copied, so the lock is held briefly no
+ * matter how large the heap is.  The copy is then checked outside the
+ * lock, in parallel chunks, for the same properties as MinHeapValidator:
+ * no gaps, children no smaller than their parents, and correct positions.
+ *
+ * Positions are read by reflection, which is too slow to do under the
+ * lock, so they are read after it is released.  If the heap changed in
+ * the meantime they may no longer match the copy, and that sample skips
+ * the position check.
+ *
+ * Each sample checks the nodes in a random range of indices against their
+ * children, so over time the whole heap is covered.  A window at least as
+ * large as the heap checks all of it.
+ *
+ * Violations are given to a reporter as a HeapValidationError.  The first
+ * one is also kept, and rethrown by close().
+ *
+ * @param <E> element type of the heap
+ * @param <P> priority type of the heap
+ */
+public class BackgroundHeapChecker<E, P extends Comparable<P>> implements AutoCloseable {
+
+	private static final int CHUNK = 8192;
+
+	private final MinHeap<E,P> heap;
+	private final Object lock;
+	private final int window;
+	private final ForkJoinPool pool;
+	private final ScheduledExecutorService timer;
+	private final Consumer<HeapValidationError> reporter;
+	private final SplittableRandom random = new SplittableRandom();
+
+	private final AtomicLong checks = new AtomicLong();
+	private volatile HeapValidationError violation;
+
+	/**
+	 * Check the heap every period, locking the heap itself while sampling,
+	 * with windows of 65536 nodes, on one checking thread, reporting to System.err.
+	 * @param heap the heap to check; the program must change it only while synchronized on it
+	 * @param period time between samples
+	 */
+	public BackgroundHeapChecker(MinHeap<E,P> heap, Duration period) {
+		this(heap, heap, period, 1 << 16, 1, e -> System.err.println(e));
+	}
+
+	/**
+	 *
+	 * @param heap the heap to check
+	 * @param lock the program holds this lock whenever it changes the heap
+	 * @param period time between samples
+	 * @param window number of nodes checked against their children per sample
+	 * @param threads number of threads checking the chunks of a sample
+	 * @param reporter is given each violation found
+	 */
+	public BackgroundHeapChecker(MinHeap<E,P> heap, Object lock, Duration period,
+			int window, int threads, Consumer<HeapValidationError> reporter) {
+		this.heap = heap;
+		this.lock = lock;
+		this.window = Math.max(1, window);
+		this.reporter = reporter;
+		this.pool = new ForkJoinPool(Math.max(1, threads));
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "heap-checker");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+		long nanos = period.toNanos();
+		timer.scheduleWithFixedDelay(this::sample, nanos, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Run one sample on the background thread, reporting instead of throwing.
+	 */
+	private void sample() {
+		try {
+			checkNow();
+		} catch (HeapValidationError e) {
+			if (violation == null) {
+				violation = e;
+			}
+			reporter.accept(e);
+		} catch (Throwable t) {
+			t.printStackTrace();
+		}
+	}
+
+	/**
+	 * Take and check one sample on the calling thread.
+	 * @throws HeapValidationError if the sample shows a problem
+	 */
+	public void checkNow() {
+		Window w;
+		synchronized (lock) {
+			w = new Window();
+		}
+		w.readPositions();
+		synchronized (lock) {
+			w.positionsCurrent = heap.getModCount() == w.modCount;
+		}
+		String err = pool.invoke(new CheckChunk(w, w.lo, w.hi));
+		checks.incrementAndGet();
+		if (err != null) {
+			throw new HeapValidationError("\nWhat went wrong: " + err + "\n"
+					+ "Sampled nodes " + w.lo + " to " + (w.hi - 1)
+					+ " of a heap of size " + w.size + "\n");
+		}
+	}
+
+	/**
+	 *
+	 * @return number of samples checked so far
+	 */
+	public long getChecks() {
+		return checks.get();
+	}
+
+	/**
+	 *
+	 * @return the first violation found by the background thread, or null
+	 */
+	public HeapValidationError getViolation() {
+		return violation;
+	}
+
+	/**
+	 * Stop checking.
+	 * @throws HeapValidationError if the background thread found a problem
+	 */
+	@Override
+	public void close() {
+		timer.shutdownNow();
+		try {
+			timer.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		pool.shutdownNow();
+		if (violation != null) {
+			throw violation;
+		}
+	}
+
+	/**
+	 * Entries, priorities and positions copied for the nodes lo..hi-1 and
+	 * their children, which are the nodes 2*lo+1..2*hi.
+	 */
+	private class Window {
+		final int size, lo, hi, modCount;
+		final Slice parents, children;
+		boolean positionsCurrent;
+
+		/**
+		 * Copy entries and priorities; the caller holds the lock.
+		 */
+		Window() {
+			modCount = heap.getModCount();
+			size = heap.uncountedSize();
+			lo = size <= window ? 0 : random.nextInt(size - window + 1);
+			hi = Math.min(size, lo + window);
+			parents = new Slice(lo, hi);
+			children = new Slice(Math.min(size, 2*lo + 1), Math.min(size, 2*hi + 1));
+		}
+
+		/**
+		 * Read the positions of the copied entries; the caller need not hold the lock.
+		 */
+		void readPositions() {
+			parents.readPositions();
+			children.readPositions();
+		}
+	}
+
+	private class Slice {
+		final int start;
+		final Object[] entries;
+		final Object[] priorities;
+		final int[] positions;
+
+		Slice(int from, int to) {
+			start = from;
+			entries = new Object[to - from];
+			priorities = new Object[to - from];
+			positions = new int[to - from];
+			for (int i=from; i < to; ++i) {
+				PQEntry<E,P> e = heap.entryAt(i);
+				entries[i - from] = e;
+				if (e != null) {
+					priorities[i - from] = e.getPriority();
+				}
+			}
+		}
+
+		void readPositions() {
+			for (int j=0; j < entries.length; ++j) {
+				if (entries[j] != null) {
+					positions[j] = MinHeapValidator.getPosition((PQEntry<?,?>) entries[j]);
+				}
+			}
+		}
+
+		/**
+		 *
+		 * @param i index in the heap
+		 * @param checkPosition whether the position read is still the one at the copy
+		 * @return a description of what is wrong with the node at i, or null
+		 */
+		String problemAt(int i, boolean checkPosition) {
+			if (entries[i - start] == null) {
+				return "I found a null entry within the currently occupied portion of the heap, at index " + i;
+			}
+			if (checkPosition && positions[i - start] != i) {
+				return "In your array at index " + i +
+						" the PQEntry object has the wrong position."
+						+ " It should be " + i + " but was " + positions[i - start];
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		P priority(int i) {
+			return (P) priorities[i - start];
+		}
+
+		Object entry(int i) {
+			return entries[i - start];
+		}
+	}
+
+	/**
+	 * Checks nodes lo..hi-1 of a window, splitting the range across the pool.
+	 * The result is the first problem found, or null.
+	 */
+	private class CheckChunk extends RecursiveTask<String> {
+		private static final long serialVersionUID = 1L;
+		private final Window w;
+		private final int lo, hi;
+
+		private CheckChunk(Window w, int lo, int hi) {
+			this.w = w;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected String compute() {
+			if (hi - lo > CHUNK) {
+				int mid = (lo + hi) >>> 1;
+				CheckChunk right = new CheckChunk(w, mid, hi);
+				right.fork();
+				String err = new CheckChunk(w, lo, mid).compute();
+				if (err != null) {
+					right.cancel(false);
+					return err;
+				}
+				return right.join();
+			}
+			for (int i=lo; i < hi; ++i) {
+				String err = w.parents.problemAt(i, w.positionsCurrent);
+				if (err != null) {
+					return err;
+				}
+				for (int c = 2*i + 1; c <= 2*i + 2 && c < w.size; ++c) {
+					err = w.children.problemAt(c, w.positionsCurrent);
+					if (err != null) {
+						return err;
+					}
+					if (w.parents.priority(i).compareTo(w.children.priority(c)) > 0) {
+						return "The node at index " + i
+								+ " is larger than its child at index " + c + ": "
+								+ w.parents.entry(i) + ">" + w.children.entry(c);
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+}
@@ -8,12 +8,26 @@ import heaps.util.HeapToStrings;
 
 public class MinHeapValidator<E, P extends Comparable<P>> {
 	final public MinHeap<E,P> pq;
-	private String before;
 	private PQEntry<E,P>[] currentEntries;
 
+	// The heap as of the last full check, kept as copies of the entries
+	//   and their priorities and only formatted if a problem is found
+	private PQEntry<E,P>[] beforeEntries;
+	private Object[] beforePriorities;
+
+	// The last Entry in heap storage as of the last check:  after an
+	//   extractMin or remove, it is the Entry that was moved
+	private PQEntry<E,P> tail;
+
+	// Found on the first call to getPosition, and then reused
+	private static volatile Field positionField;
+
+	@SuppressWarnings("unchecked")
 	public MinHeapValidator(final MinHeap<E,P> pq) {
 		this.pq = pq;
-		this.before = pq.toString();
+		this.beforeEntries = (PQEntry<E, P>[]) HeapToStrings.toEntriesArray(pq);
+		this.beforePriorities = snapshotPriorities(beforeEntries);
+		this.tail = lastEntry();
 
 		//
 		//Every time the heap is altered, check to make sure that no
@@ -35,20 +49,129 @@ public class MinHeapValidator<E, P extends Comparable<P>> {
 			checkForGaps();
 			childrenNoSmallerThanParent();
 			checkLocsCorrect();
-			before = HeapToStrings.toTree(pq);
+			beforeEntries = currentEntries;
+			beforePriorities = snapshotPriorities(currentEntries);
+			tail = lastEntry();
 		} catch(Throwable t) {
-			String oops = "\nTree before the problem occurred:\n";
-			oops += before + "\n";
-			oops += "What went wrong: " + t.getMessage() + "\n";
-			// System.out.println("Its stack trace is ");
-			// t.printStackTrace();
-			oops += "Tree that triggered this problem:" + "\n";
-			oops += HeapToStrings.toTree(pq);
-			t.printStackTrace();
-			throw new HeapValidationError(t + "" + oops);
+			throw failure(t, HeapToStrings.toTree(beforeTree()));
 		}
 	}
 
+	/**
+	 * Check, in O(log n), only the part of the heap that an operation on
+	 * the given Entry can have changed:  the path from the Entry up to the
+	 * root, with the children of each node on it.  Call this after insert,
+	 * updatePriority, replaceMin or insertThenExtract, passing the Entry
+	 * inserted or updated.
+	 * 
+	 * Only the tree after the problem can be shown, since unlike check()
+	 * this keeps no copy of the heap.
+	 * 
+	 * @param entry the Entry inserted or updated
+	 */
+	public void checkAround(PQEntry<E,P> entry) {
+		try {
+			int loc = getPosition(entry);
+			int size = pq.uncountedSize();
+			if (loc >= size) {
+				throw new Error("The entry " + entry + " has position " + loc
+						+ " but the heap has size " + size);
+			}
+			if (loc >= 0) {
+				checkPath(loc);
+			}
+			tail = lastEntry();
+		} catch(Throwable t) {
+			throw failure(t, "(not kept between incremental checks)");
+		}
+	}
+
+	/**
+	 * Check, in O(log n), the part of the heap changed by an extractMin
+	 * or remove:  the Entry that was last in heap storage at the previous
+	 * check was moved into the gap, so check the path from where it ended up.
+	 */
+	public void checkAfterRemoval() {
+		if (tail != null) {
+			checkAround(tail);
+		}
+	}
+
+	/**
+	 * Check the nodes from index up to the root:  none may be
+	 * missing, each must know its position, and none may be larger
+	 * than its children.
+	 * @param index where to start
+	 */
+	private void checkPath(int index) {
+		int size = pq.uncountedSize();
+		for (int i=index; ; i = (i-1) / 2) {
+			PQEntry<E,P> node = nodeAt(i);
+			for (int c = 2*i + 1; c <= 2*i + 2 && c < size; ++c) {
+				PQEntry<E,P> child = nodeAt(c);
+				if (node.getPriority().compareTo(child.getPriority()) > 0) {
+					throw new Error("The node at index " + i
+							+ " is larger than its child at index " + c + ": "
+							+ node + ">" + child);
+				}
+			}
+			if (i == 0) {
+				break;
+			}
+		}
+	}
+
+	private PQEntry<E,P> nodeAt(int i) {
+		PQEntry<E,P> node = pq.entryAt(i);
+		if (node == null) {
+			throw new Error("I found a null entry within the currently occupied portion of the heap, at index " + i);
+		}
+		int loc = getPosition(node);
+		if (loc != i) {
+			throw new Error("In your array at index " + i + 
+					" the PQEntry object has the wrong position."
+					+ " It should be " + i + " but was " + loc);
+		}
+		return node;
+	}
+
+	private PQEntry<E,P> lastEntry() {
+		return pq.entryAt(pq.uncountedSize() - 1);
+	}
+
+	private static Object[] snapshotPriorities(PQEntry<?,?>[] entries) {
+		Object[] priorities = new Object[entries.length];
+		for (int i=0; i < entries.length; ++i) {
+			priorities[i] = entries[i] == null ? null : entries[i].getPriority();
+		}
+		return priorities;
+	}
+
+	/**
+	 * 
+	 * @return the heap as of the last full check, one label per node
+	 */
+	private Object[] beforeTree() {
+		String[] labels = new String[beforeEntries.length];
+		for (int i=0; i < labels.length; ++i) {
+			labels[i] = beforeEntries[i] == null ? "null" 
+					: "(E=" + beforeEntries[i].getElement() + ", P=" + beforePriorities[i] + ")";
+		}
+		return labels;
+	}
+
+	private HeapValidationError failure(Throwable t, String before) {
+		String oops = "\nTree before the problem occurred:\n";
+		oops += before + "\n";
+		oops += "What went wrong: " + t.getMessage() + "\n";
+		// System.out.println("Its stack trace is ");
+		// t.printStackTrace();
+		oops += "Tree that triggered this problem:" + "\n";
+		oops += HeapToStrings.toTree(pq);
+		t.printStackTrace();
+		return new HeapValidationError(t + "" + oops);
+	}
+
 
 
 
@@ -125,30 +248,18 @@ public class MinHeapValidator<E, P extends Comparable<P>> {
 	}
 	
 	
-	private static int getPosition(PQEntry<?,?> entry) {
-		Object o = entry;
-  	    Field field = null;
+	static int getPosition(PQEntry<?,?> entry) {
 		try {
-			field = o.getClass().getDeclaredField("position");
-		} catch (NoSuchFieldException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
-		} catch (SecurityException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
-		}    
-	    field.setAccessible(true);
-	    Integer val = null;
-		try {
-			val = (Integer)field.get(o);
-		} catch (IllegalArgumentException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			Field field = positionField;
+			if (field == null || field.getDeclaringClass() != entry.getClass()) {
+				field = entry.getClass().getDeclaredField("position");
+				field.setAccessible(true);
+				positionField = field;
+			}
+			return field.getInt(entry);
+		} catch (ReflectiveOperationException e) {
+			throw new Error("Cannot read the position of " + entry, e);
 		}
-	    return val;
 	}
 	
 	/**
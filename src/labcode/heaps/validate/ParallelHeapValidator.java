@@ -0,0 +1,175 @@
+package heaps.validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import heaps.MinHeap;
+import heaps.PQEntry;
+
+/**
+ * Full validation of very large heaps, checking the same properties as
+ * MinHeapValidator.check() but splitting the indices across a ForkJoinPool.
+ * Nodes are read in place through MinHeap.entryAt, so the heap is not
+ * copied, and messages are only built for nodes that fail.
+ *
+ * By default the check stops as soon as any chunk finds a violation;
+ * with reportAll it keeps going and reports every violation, up to
+ * MAX_REPORTED of them.  The heap must not change while it is checked,
+ * but one validator may run several checks at once.
+ *
+ * @param <E> element type of the heap
+ * @param <P> priority type of the heap
+ */
+public class ParallelHeapValidator<E, P extends Comparable<P>> {
+
+	private static final int CHUNK = 1 << 14;
+	public static final int MAX_REPORTED = 1000;
+
+	final public MinHeap<E,P> pq;
+	private final ForkJoinPool pool;
+	private final boolean reportAll;
+
+	/**
+	 * Validate on the common pool, stopping at the first violation.
+	 * @param pq the heap to validate
+	 */
+	public ParallelHeapValidator(MinHeap<E,P> pq) {
+		this(pq, ForkJoinPool.commonPool(), false);
+	}
+
+	/**
+	 *
+	 * @param pq the heap to validate
+	 * @param pool the threads that check the chunks
+	 * @param reportAll whether to find every violation rather than stop at the first
+	 */
+	public ParallelHeapValidator(MinHeap<E,P> pq, ForkJoinPool pool, boolean reportAll) {
+		this.pq = pq;
+		this.pool = pool;
+		this.reportAll = reportAll;
+	}
+
+	/**
+	 * Check the whole heap.
+	 * @throws HeapValidationError describing the violations found, in index order
+	 */
+	public void check() {
+		List<Violation> violations = findViolations();
+		if (!violations.isEmpty()) {
+			StringBuilder sb = new StringBuilder("\nWhat went wrong:\n");
+			for (Violation v : violations) {
+				sb.append(v.message).append('\n');
+			}
+			if (violations.size() == MAX_REPORTED) {
+				sb.append("(stopped after ").append(MAX_REPORTED).append(" violations)\n");
+			}
+			throw new HeapValidationError(sb.toString());
+		}
+	}
+
+	/**
+	 * Check the whole heap.
+	 * @return the violations found, in index order; at most one unless reportAll
+	 */
+	public List<Violation> findViolations() {
+		Search search = new Search();
+		int size = pq.uncountedSize();
+		pool.invoke(new CheckRange(search, size, 0, size));
+		List<Violation> violations = new ArrayList<Violation>(search.found);
+		Collections.sort(violations);
+		// Chunks running at once may each report before they see stop
+		int limit = reportAll ? MAX_REPORTED : 1;
+		if (violations.size() > limit) {
+			violations = violations.subList(0, limit);
+		}
+		return violations;
+	}
+
+	/**
+	 * What one call of findViolations() has found so far, shared by its tasks.
+	 */
+	private class Search {
+		final ConcurrentLinkedQueue<Violation> found = new ConcurrentLinkedQueue<Violation>();
+		volatile boolean stop;
+
+		void report(int index, String message) {
+			found.add(new Violation(index, message));
+			if (!reportAll || found.size() >= MAX_REPORTED) {
+				stop = true;
+			}
+		}
+	}
+
+	/**
+	 * Checks nodes lo..hi-1 against their children, splitting the range across the pool.
+	 */
+	private class CheckRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Search search;
+		private final int size, lo, hi;
+
+		private CheckRange(Search search, int size, int lo, int hi) {
+			this.search = search;
+			this.size = size;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > CHUNK) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new CheckRange(search, size, lo, mid), new CheckRange(search, size, mid, hi));
+				return;
+			}
+			for (int i=lo; i < hi && !search.stop; ++i) {
+				PQEntry<E,P> node = pq.entryAt(i);
+				if (node == null) {
+					search.report(i, "I found a null entry within the currently occupied portion of the heap, at index " + i);
+					continue;
+				}
+				int loc = MinHeapValidator.getPosition(node);
+				if (loc != i) {
+					search.report(i, "In your array at index " + i +
+							" the PQEntry object has the wrong position."
+							+ " It should be " + i + " but was " + loc);
+				}
+				for (int c = 2*i + 1; c <= 2*i + 2 && c < size; ++c) {
+					PQEntry<E,P> child = pq.entryAt(c);
+					if (child != null && node.getPriority().compareTo(child.getPriority()) > 0) {
+						search.report(i, "The node at index " + i
+								+ " is larger than its child at index " + c + ": "
+								+ node + ">" + child);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A problem found at one index of the heap.
+	 */
+	public static class Violation implements Comparable<Violation> {
+		public final int index;
+		public final String message;
+
+		private Violation(int index, String message) {
+			this.index = index;
+			this.message = message;
+		}
+
+		@Override
+		public int compareTo(Violation o) {
+			return Integer.compare(index, o.index);
+		}
+
+		public String toString() {
+			return message;
+		}
+	}
+
+}
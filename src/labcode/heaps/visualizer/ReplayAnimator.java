@@ -0,0 +1,341 @@
+package heaps.visualizer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import heaps.HeapObserver;
+import heaps.MinHeap;
+import heaps.PQEntry;
+import heaps.trace.HoldModelTraceGenerator;
+import heaps.trace.Trace;
+import heaps.trace.TraceReader;
+import timing.InputSpec;
+import timing.Ticker;
+
+/**
+ * Replays a Trace against a MinHeap and writes an HTML page that animates
+ * it, one frame per swap, so that sift-up and sift-down chains can be
+ * followed step by step.  Each frame shows the operation, the swap, and the
+ * ticks spent since the previous frame.
+ *
+ * Frames are recorded as differences:  each lists only the slots that
+ * changed, with their old and new contents, and the page applies them
+ * forward or backward to one drawing of the tree rather than redrawing it.
+ * Slots keep a fixed place, laid out for the largest size the heap reaches.
+ */
+public class ReplayAnimator implements HeapObserver {
+
+	private static final int FRAME_MILLIS = 600;
+
+	/**
+	 * One step of the animation.
+	 */
+	private static class Frame {
+		final String op;
+		final long ticks;
+		final int[] swap;
+		final List<Change> changes = new ArrayList<Change>();
+
+		Frame(String op, long ticks, int[] swap) {
+			this.op = op;
+			this.ticks = ticks;
+			this.swap = swap;
+		}
+	}
+
+	/**
+	 * New contents of a slot; null element and priority mean empty.
+	 */
+	private static class Change {
+		final int index;
+		final String oldE, oldP, newE, newP;
+
+		Change(int index, String oldE, String oldP, String newE, String newP) {
+			this.index = index;
+			this.oldE = oldE;
+			this.oldP = oldP;
+			this.newE = newE;
+			this.newP = newP;
+		}
+	}
+
+	private final Ticker ticker = new Ticker();
+	private final MinHeap<Integer,Integer> heap = new MinHeap<Integer,Integer>(16, ticker);
+	private final List<Frame> frames = new ArrayList<Frame>();
+
+	// What the page shows in each slot after the frames so far
+	private final List<String> shownE = new ArrayList<String>();
+	private final List<String> shownP = new ArrayList<String>();
+
+	// Slots changed since the last frame
+	private final Set<Integer> pending = new LinkedHashSet<Integer>();
+
+	private String op;
+	private long lastTicks;
+	private int framesForOp;
+	private int maxSize;
+
+	private ReplayAnimator() {
+		heap.setObserver(this);
+	}
+
+	/**
+	 * Replay the start of a trace and write its animation as an HTML page.
+	 *
+	 * @param trace the operations to replay
+	 * @param maxOps number of operations to replay at most
+	 * @param file the page to write, replacing any existing file
+	 * @throws java.io.IOException write
+	 */
+	public static void write(Trace trace, int maxOps, Path file) throws IOException {
+		ReplayAnimator animator = new ReplayAnimator();
+		animator.replay(trace, maxOps);
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			animator.writePage(out);
+		}
+	}
+
+	private void replay(Trace trace, int maxOps) {
+		@SuppressWarnings("unchecked")
+		PQEntry<Integer,Integer>[] handles = (PQEntry<Integer,Integer>[]) new PQEntry<?,?>[trace.numIds()];
+		for (int i=0; i < Math.min(maxOps, trace.length()); ++i) {
+			int id = trace.getId(i);
+			int priority = trace.getPriority(i);
+			framesForOp = 0;
+			switch (trace.getOp(i)) {
+			case Trace.INSERT:
+				op = "insert(" + id + ", " + priority + ")";
+				handles[id] = heap.insert(id, priority);
+				break;
+			case Trace.EXTRACT_MIN:
+				op = "extractMin() of " + heap.entryAt(0);
+				PQEntry<Integer,Integer> e = heap.extractMin();
+				if (e != null) {
+					handles[e.getElement()] = null;
+				}
+				break;
+			case Trace.UPDATE:
+				op = "update(" + id + ", " + priority + ")";
+				if (handles[id] != null)
+					handles[id].updatePriority(priority);
+				break;
+			case Trace.REMOVE:
+				op = "remove(" + id + ")";
+				if (handles[id] != null && heap.remove(handles[id]))
+					handles[id] = null;
+				break;
+			}
+			maxSize = Math.max(maxSize, heap.uncountedSize());
+			// Show every operation, even one that changed nothing
+			if (!pending.isEmpty() || framesForOp == 0) {
+				frame(null);
+			}
+		}
+	}
+
+	@Override
+	public void changed(int index) {
+		pending.add(index);
+	}
+
+	@Override
+	public void swapped(int i, int j) {
+		int[] swap = { i, j };
+		if (!pending.isEmpty()) {
+			// Show the changes before the swap on their own
+			frame(null, swap);
+		}
+		pending.add(i);
+		pending.add(j);
+		frame(swap);
+	}
+
+	private void frame(int[] swap) {
+		frame(swap, null);
+	}
+
+	/**
+	 * Record a frame with the pending slots, as the heap now has them.
+	 * @param swap the two indices swapped, or null
+	 * @param undo two indices just swapped, to be shown as they were before, or null
+	 */
+	private void frame(int[] swap, int[] undo) {
+		long ticks = ticker.getTickCount();
+		Frame f = new Frame(op, ticks - lastTicks, swap);
+		lastTicks = ticks;
+		for (int index : pending) {
+			while (shownE.size() <= index) {
+				shownE.add(null);
+				shownP.add(null);
+			}
+			int from = index;
+			if (undo != null && index == undo[0]) {
+				from = undo[1];
+			}
+			else if (undo != null && index == undo[1]) {
+				from = undo[0];
+			}
+			PQEntry<Integer,Integer> e = heap.entryAt(from);
+			String newE = e == null ? null : String.valueOf(e.getElement());
+			String newP = e == null ? null : String.valueOf(e.getPriority());
+			f.changes.add(new Change(index, shownE.get(index), shownP.get(index), newE, newP));
+			shownE.set(index, newE);
+			shownP.set(index, newP);
+		}
+		pending.clear();
+		frames.add(f);
+		framesForOp++;
+	}
+
+	/**
+	 * In-order layout, as TreeSVGRenderer uses, of a complete tree of maxSize slots.
+	 */
+	private int layout(int[] xs, int position, int x) {
+		if (2*position + 1 < xs.length) {
+			x = layout(xs, 2*position + 1, x);
+		}
+		xs[position] = x;
+		x += TreeSVGRenderer.nodeSpacing;
+		if (2*position + 2 < xs.length) {
+			x = layout(xs, 2*position + 2, x);
+		}
+		return x;
+	}
+
+	private static int y(int index) {
+		int depth = 31 - Integer.numberOfLeadingZeros(index + 1);
+		return 2 + TreeSVGRenderer.nodeSpacing/2 + depth*TreeSVGRenderer.nodeSpacing;
+	}
+
+	private void writePage(Appendable out) throws IOException {
+		int spacing = TreeSVGRenderer.nodeSpacing;
+		int radius  = TreeSVGRenderer.nodeWidth/2;
+		int textWidth = (int)Math.floor(Math.sqrt(7.0/16.0*radius*radius));
+		int[] xs = new int[maxSize];
+		int width = maxSize == 0 ? spacing : layout(xs, 0, spacing/2 + 2) - spacing/2 + 2;
+		int levels = 32 - Integer.numberOfLeadingZeros(maxSize);
+
+		out.append(TreeSVGRenderer.htmlStart(TreeSVGRenderer.treeStyles()));
+		out.append("<h1>Replay of " + frames.size() + " steps</h1>\n");
+		out.append("<div><button onclick=\"stepBy(-1)\">&lt; Back</button> "
+				+ "<button onclick=\"play()\">Play / Pause</button> "
+				+ "<button onclick=\"stepBy(1)\">Next &gt;</button> "
+				+ "<span id=\"label\"></span></div>\n");
+		out.append(TreeSVGRenderer.startSVG(width, Math.max(1, levels)*spacing + 4));
+		for (int c=1; c < maxSize; ++c) {
+			int p = (c-1) / 2;
+			out.append(String.format("<line id=\"l%d\" x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" class=\"treeLine\" style=\"display:none\" />\n",
+					c, xs[p], y(p), xs[c], y(c)));
+		}
+		for (int i=0; i < maxSize; ++i) {
+			int x = xs[i], y = y(i);
+			out.append("<g id=\"n" + i + "\" style=\"display:none\">\n");
+			out.append(String.format("<circle id=\"c%d\" cx=\"%d\" cy=\"%d\" r=\"%d\" class=\"node\" />\n", i, x, y, radius));
+			out.append(TreeSVGRenderer.line(x - radius, y, x + radius, y, "treeLine"));
+			out.append(String.format("<text id=\"p%d\" x=\"%d\" y=\"%d\" textLength=\"%d\" lengthAdjust=\"spacingAndGlyphs\" class=\"goodText\"></text>\n",
+					i, x, y - radius/2, textWidth));
+			out.append(String.format("<text id=\"e%d\" x=\"%d\" y=\"%d\" textLength=\"%d\" lengthAdjust=\"spacingAndGlyphs\" class=\"goodText\"></text>\n",
+					i, x, y + radius/2, textWidth));
+			out.append("</g>\n");
+		}
+		out.append(TreeSVGRenderer.endSVG());
+
+		out.append("<script>\n");
+		out.append("// Each frame: operation, ticks since the previous frame, swapped indices,\n");
+		out.append("//   and changed slots as [index, old element, old priority, new element, new priority]\n");
+		out.append("var frames = [\n");
+		for (Frame f : frames) {
+			out.append("{op:").append(quote(f.op)).append(",t:").append(String.valueOf(f.ticks)).append(",s:");
+			out.append(f.swap == null ? "null" : "[" + f.swap[0] + "," + f.swap[1] + "]");
+			out.append(",c:[");
+			for (int k=0; k < f.changes.size(); ++k) {
+				Change c = f.changes.get(k);
+				out.append(k == 0 ? "[" : ",[").append(String.valueOf(c.index))
+					.append(',').append(quote(c.oldE)).append(',').append(quote(c.oldP))
+					.append(',').append(quote(c.newE)).append(',').append(quote(c.newP)).append(']');
+			}
+			out.append("]},\n");
+		}
+		out.append("];\n");
+		out.append(SCRIPT.replace("FRAME_MILLIS", String.valueOf(FRAME_MILLIS)));
+		out.append("</script>\n");
+		out.append(TreeSVGRenderer.htmlEnd());
+	}
+
+	private static String quote(String s) {
+		if (s == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder("\"");
+		for (char ch : s.toCharArray()) {
+			if (ch == '"' || ch == '\\') {
+				sb.append('\\').append(ch);
+			}
+			else if (ch == '<') {
+				sb.append("\\u003c");
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	// Applies frames forward and backward;  "at" is the number of frames applied
+	private static final String SCRIPT =
+			"var at = 0, timer = null;\n" +
+			"function show(i, e, p) {\n" +
+			"  var g = document.getElementById('n' + i);\n" +
+			"  var l = document.getElementById('l' + i);\n" +
+			"  var d = e === null ? 'none' : '';\n" +
+			"  g.style.display = d;\n" +
+			"  if (l) l.style.display = d;\n" +
+			"  document.getElementById('e' + i).textContent = e === null ? '' : e;\n" +
+			"  document.getElementById('p' + i).textContent = p === null ? '' : p;\n" +
+			"}\n" +
+			"function mark(f, cls) {\n" +
+			"  if (f && f.s) f.s.forEach(function(i) { document.getElementById('c' + i).setAttribute('class', cls); });\n" +
+			"}\n" +
+			"function stepBy(d) {\n" +
+			"  if (at + d < 0 || at + d > frames.length) return false;\n" +
+			"  mark(frames[at - 1], 'node');\n" +
+			"  if (d > 0) { frames[at].c.forEach(function(c) { show(c[0], c[3], c[4]); }); at++; }\n" +
+			"  else { at--; frames[at].c.forEach(function(c) { show(c[0], c[1], c[2]); }); }\n" +
+			"  var f = frames[at - 1];\n" +
+			"  mark(f, 'badNode');\n" +
+			"  document.getElementById('label').textContent = f === undefined ? 'Before the first step' :\n" +
+			"    'Step ' + at + ' of ' + frames.length + ': ' + f.op +\n" +
+			"    (f.s ? ', swap ' + f.s[0] + ' and ' + f.s[1] : '') + ', ' + f.t + ' ticks';\n" +
+			"  return true;\n" +
+			"}\n" +
+			"function play() {\n" +
+			"  if (timer) { clearInterval(timer); timer = null; return; }\n" +
+			"  timer = setInterval(function() { if (!stepBy(1)) { clearInterval(timer); timer = null; } }, FRAME_MILLIS);\n" +
+			"}\n" +
+			"document.getElementById('label').textContent = 'Before the first step';\n";
+
+	/**
+	 * With no arguments, animate a small generated hold-model trace.
+	 * Given the path of a trace recorded by RecordingMinPriorityQueue,
+	 * and optionally a number of operations, animate that instead.
+	 * The page is written to outputs/replay.html.
+	 */
+	public static void main(String[] args) throws IOException {
+		Trace trace = args.length > 0
+				? TraceReader.read(Paths.get(args[0]))
+				: new HoldModelTraceGenerator().genInput(InputSpec.gen(15));
+		int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		Path file = Paths.get("outputs", "replay.html");
+		write(trace, ops, file);
+		System.out.println("Wrote " + file);
+	}
+
+}
@@ -1,23 +1,41 @@
 package heaps.visualizer;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import heaps.MinHeap;
+import heaps.PQEntry;
+import heaps.trace.Trace;
+
+/**
+ * Draws heaps as SVG trees inside HTML pages.  Drawings are written
+ * straight to an Appendable or file as they are produced, and the layout
+ * is kept in local variables, so several heaps can be drawn at once from
+ * different threads.  Large heaps can be drawn to a limited number of
+ * levels, with the entries below each bottom node summarized as a count.
+ */
 public class TreeSVGRenderer {
 	
-	static int nodeWidth = 60;           // Width of each node
-	static int nodeSpacing = nodeWidth;  // Left/Right and Up/Down spacing
-	
-	static int currentX = 0;  // Counter used by Knuth's spacing
+	static final int nodeWidth = 60;           // Width of each node
+	static final int nodeSpacing = nodeWidth;  // Left/Right and Up/Down spacing
 	
-//	private static final String TREES_CSS_PATH = "labs/heaps/visualizer/trees.css";
+	// trees.css is read from the classpath, next to this class;  this is
+	//   where it is found when running from the project without a build
 	private static final String TREES_CSS_PATH = "src/labcode/heaps/visualizer/trees.css";
+
+	// Misc: Elements can't contain commas;  Priorities can't contain end parens ")".
+	private static final Pattern TREE_ITEM = Pattern.compile("\\(E=([^,]*), P=([^\\)]*)\\)|(null)\\s*");
+
+	private static volatile String styles;
 	
 	/**
 	 *  A structure to contain data for Tree items
@@ -30,6 +48,7 @@ public class TreeSVGRenderer {
 		int depth;
 		boolean empty = false;
 		TreeItem expected;
+		int hidden;       // Entries below this item that are not drawn
 	}
 	
 	
@@ -41,35 +60,35 @@ public class TreeSVGRenderer {
 	 * @param treeItems Array of tree items (assumed to represent complete binary tree)
      * @param position current position
      * @param depth current depth
-     *
+     * @param x the x coordinate for the leftmost node of this subtree
+     * @return the x coordinate following this subtree
+	 *
 	 */
-	public static void knuthLayoutHelper(ArrayList<TreeItem> treeItems, int position, int depth) {
+	private static int knuthLayoutHelper(ArrayList<TreeItem> treeItems, int position, int depth, int x) {
 		int lcl = 2*position+1;
 		int rcl = 2*position+2;
 		if(lcl<treeItems.size()) {
-			knuthLayoutHelper(treeItems, lcl, depth+1);
+			x = knuthLayoutHelper(treeItems, lcl, depth+1, x);
 		}
 		TreeItem thisItem = treeItems.get(position);
-		thisItem.x = currentX;
+		thisItem.x = x;
 		thisItem.depth = depth;
-		currentX += nodeSpacing; 
+		x += nodeSpacing; 
 		if(rcl<treeItems.size()) {
-			knuthLayoutHelper(treeItems, rcl, depth+1);
+			x = knuthLayoutHelper(treeItems, rcl, depth+1, x);
 		}
-		
+		return x;
 	}
 
 	
 	
     /**
-     * Generate lines representing tree.
+     * Write lines representing tree.
      *
+     * @param out where to write
      * @param treeItems array of tree items to represent
-     *
-     * @return String representing tree, with appropriate lines and spacing
      */ 
-	public static String drawLines(ArrayList<TreeItem> treeItems) {
-		String lines = "";
+	private static void writeLines(Appendable out, ArrayList<TreeItem> treeItems) throws IOException {
 		for(int i=0;i<treeItems.size();i++) {
 			int lcl = 2*i+1;
 			int rcl = 2*i+2;
@@ -81,61 +100,78 @@ public class TreeSVGRenderer {
 			
 			if(lcl < treeItems.size()) {
 				TreeItem child = treeItems.get(lcl);
-				lines += line(parent.x, py, child.x, cy, "treeLine");
+				out.append(line(parent.x, py, child.x, cy, "treeLine"));
 			}
 			if(rcl < treeItems.size()) {
 				TreeItem child = treeItems.get(rcl);
-				lines += line(parent.x, py, child.x, cy, "treeLine");				
+				out.append(line(parent.x, py, child.x, cy, "treeLine"));
+			}
+			if(parent.hidden > 0) {
+				out.append(line(parent.x, py, parent.x, cy - nodeWidth/4, "summaryLine"));
 			}
 		}
-		return lines;
 	}
-	
-    /**
-     * Generate nodes representing tree items
-     *
-     * @param treeItems array of tree items to represent
-     *
-     * @return String representing tree, with appropriate nodes and spacing
-     */ 
-	public static String drawNodes(ArrayList<TreeItem> treeItems) {
-		String nodes = "";
+
+	/**
+	 * Write nodes representing tree items, and the summaries of any
+	 * entries not drawn below them.
+	 *
+	 * @param out where to write
+	 * @param treeItems array of tree items to represent
+	 */
+	private static void writeNodes(Appendable out, ArrayList<TreeItem> treeItems) throws IOException {
 		for(TreeItem item: treeItems) {
 			int py = 2+nodeSpacing/2+item.depth*nodeSpacing;
-			nodes += pqNode(item.x, py, item);
+			writeNode(out, item.x, py, item);
+			if(item.hidden > 0) {
+				out.append(text(item.x, py+nodeSpacing, nodeWidth, "summaryText", "+" + item.hidden));
+			}
 		}
-		return nodes;
-	}	
+	}
 
     /**
-     * Generate full diagram representing tree items
+     * Write full diagram representing tree items
      *
+     * @param out where to write
      * @param treeItems array of tree items to represent
-     *
-     * @return String representing tree, with appropriate nodes, lines, and spacing
      */
-	public static String knuthLayout(ArrayList<TreeItem> treeItems) {
-		String drawing = "";
+	private static void writeLayout(Appendable out, ArrayList<TreeItem> treeItems) throws IOException {
 		int maxDepth = 0;
+		int x = nodeSpacing/2+2;
 		if(treeItems.size()==0) {
-			currentX = nodeSpacing/2+2;
-			drawing = text(currentX, nodeSpacing/2+2, nodeWidth, "badText","EMPTY");
-			currentX += nodeWidth;
-			maxDepth = 0;
+			out.append(startSVG(x+nodeWidth-nodeSpacing/2+2, (maxDepth+1)*nodeSpacing+4));
+			out.append(text(x, nodeSpacing/2+2, nodeWidth, "badText","EMPTY"));
 		} else {
 			// Compute the positions using the Knuth algorithm
-			// Setup
-			currentX = nodeSpacing/2+2;
-			// Recursive
-			knuthLayoutHelper(treeItems, 0, 0);
+			x = knuthLayoutHelper(treeItems, 0, 0, x);
 			
-			// We now have the max x in currentX
+			// We now have the max x in x
 			maxDepth = (int)Math.ceil(Math.log(treeItems.size()) / Math.log(2));
-			drawing = drawLines(treeItems) + drawNodes(treeItems);
+			if(treeItems.get(treeItems.size()-1).hidden > 0) {
+				maxDepth++;  // Room for the summaries
+			}
+			out.append(startSVG(x-nodeSpacing/2+2, (maxDepth+1)*nodeSpacing+4));
+			writeLines(out, treeItems);
+			writeNodes(out, treeItems);
 		}
-		
-		// Return the drawing
-		return startSVG(currentX-nodeSpacing/2+2, (maxDepth+1)*nodeSpacing+4) + drawing + endSVG();
+		out.append(endSVG());
+	}
+
+    /**
+     * Generate full diagram representing tree items
+     *
+     * @param treeItems array of tree items to represent
+     *
+     * @return String representing tree, with appropriate nodes, lines, and spacing
+     */
+	private static String knuthLayout(ArrayList<TreeItem> treeItems) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeLayout(sb, treeItems);
+		} catch (IOException e) {
+			throw new Error("StringBuilder cannot fail", e);
+		}
+		return sb.toString();
 	}
 	
 	
@@ -149,9 +185,7 @@ public class TreeSVGRenderer {
 	private static ArrayList<TreeItem> treeItems(String tree) {
 	    ArrayList<TreeItem> treeItems = new ArrayList<TreeItem>();
 
-		// Misc: Elements can't contain commas;  Priorities can't contain end parens ")".
-		Pattern pattern = Pattern.compile("\\(E=([^,]*), P=([^\\)]*)\\)|(null)\\s*");
-	    Matcher matcher = pattern.matcher(tree);
+	    Matcher matcher = TREE_ITEM.matcher(tree);
 	    while(matcher.find()) {
 	    	TreeItem newNode = new TreeItem();
 	    	//System.out.println("Item: " + matcher.group(0));
@@ -166,6 +200,77 @@ public class TreeSVGRenderer {
 	    }
 	    return treeItems;
 	}
+
+	/**
+	 * Tree items for the top levels of a heap, read directly from it.
+	 * Each item on the bottom level drawn records how many entries
+	 * are below it.
+	 *
+	 * @param heap the heap to draw
+	 * @param levels number of levels to draw
+	 * @return the items, in heap order
+	 */
+	private static ArrayList<TreeItem> treeItems(MinHeap<?,?> heap, int levels) {
+		checkLevels(levels);
+		int size = heap.uncountedSize();
+		int shown = levels >= 31 ? size : Math.min(size, (1 << levels) - 1);
+		ArrayList<TreeItem> treeItems = new ArrayList<TreeItem>(shown);
+		for (int i=0; i < shown; ++i) {
+			PQEntry<?,?> entry = heap.entryAt(i);
+			TreeItem item = new TreeItem();
+			item.e = escape(String.valueOf(entry.getElement()));
+			item.p = escape(String.valueOf(entry.getPriority()));
+			if (2*i + 1 >= shown) {
+				item.hidden = subtreeSize(i, size) - 1;
+			}
+			treeItems.add(item);
+		}
+		return treeItems;
+	}
+
+	private static void checkLevels(int levels) {
+		if (levels < 1) {
+			throw new IllegalArgumentException("levels must be at least 1, but was " + levels);
+		}
+	}
+
+	/**
+	 * Escape text drawn from a heap's elements and priorities, which may
+	 *  contain anything, so that it cannot break the markup around it.
+	 * @param s text to show
+	 * @return s with the XML special characters escaped
+	 */
+	private static String escape(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i=0; i < s.length(); ++i) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '<': sb.append("&lt;"); break;
+			case '>': sb.append("&gt;"); break;
+			case '&': sb.append("&amp;"); break;
+			case '"': sb.append("&quot;"); break;
+			default:  sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 
+	 * @param root index of a node
+	 * @param size number of nodes in the complete binary tree
+	 * @return number of nodes in the subtree at root
+	 */
+	private static int subtreeSize(int root, int size) {
+		int count = 0;
+		long first = root, last = root;
+		while (first < size) {
+			count += Math.min(last, size - 1) - first + 1;
+			first = 2*first + 1;
+			last  = 2*last + 2;
+		}
+		return count;
+	}
 	
     /**
      * Pad out a given tree with expected tree items and return
@@ -177,6 +282,10 @@ public class TreeSVGRenderer {
      * @return (Knuth) String representing new tree
      */
 	public static String diffTree(String given, String expected) {
+		return knuthLayout(diffItems(given, expected));
+	}
+
+	private static ArrayList<TreeItem> diffItems(String given, String expected) {
 		// 1. Get all the items for each tree
 	    ArrayList<TreeItem> expectedItems = treeItems(expected);
 	    ArrayList<TreeItem> givenItems = treeItems(given);
@@ -194,8 +303,7 @@ public class TreeSVGRenderer {
 	    for(int i=0;i<givenItems.size();i++) {
 	    	givenItems.get(i).expected = expectedItems.get(i);
 	    }
-		
-		return knuthLayout(givenItems);
+		return givenItems;
 	}
 	
     /**
@@ -206,12 +314,50 @@ public class TreeSVGRenderer {
      * @return String representing Knuth-style layout of tree
      */	
 	public static String stringToTree(String tree) {
-		// 1. Identify the number of nodes in the tree (assumes complete binary tree
+	    return knuthLayout(treeItems(tree));
+	}
 
-	    ArrayList<TreeItem> treeItems = treeItems(tree);
-	    
-	    // Render tree: Lines first then nodes
-	    return knuthLayout(treeItems);
+	/**
+	 * Draw the top levels of a heap as SVG.  Nodes on the bottom level
+	 *  drawn are labelled with the number of entries below them.
+	 *
+	 * @param heap the heap to draw
+	 * @param levels number of levels to draw, at least 1
+	 * @param out where to write the SVG
+	 * @throws java.io.IOException write
+	 */
+	public static void writeHeap(MinHeap<?,?> heap, int levels, Appendable out) throws IOException {
+		writeLayout(out, treeItems(heap, levels));
+	}
+
+	/**
+	 * Animate the start of a recorded trace, one frame per swap, in outputs/file.html
+	 *
+	 * @param trace the operations to replay
+	 * @param maxOps number of operations to replay at most
+	 * @param file name of the page, without .html
+	 * @throws java.io.IOException write
+	 */
+	public static void showReplay(Trace trace, int maxOps, String file) throws IOException {
+		ReplayAnimator.write(trace, maxOps, Paths.get("outputs", file + ".html"));
+	}
+
+	/**
+	 * Write an HTML page with the top levels of a heap.
+	 *
+	 * @param heap the heap to draw
+	 * @param levels number of levels to draw, at least 1
+	 * @param file the page to write, replacing any existing file
+	 * @throws java.io.IOException write
+	 */
+	public static void writeHeapPage(MinHeap<?,?> heap, int levels, Path file) throws IOException {
+		checkLevels(levels);
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.append(htmlStart(treeStyles()));
+			out.append("<h2>MinHeap of " + heap.uncountedSize() + " entries</h2><br />");
+			writeHeap(heap, levels, out);
+			out.append(htmlEnd());
+		}
 	}
 	
     /**
@@ -259,14 +405,24 @@ public class TreeSVGRenderer {
 		return String.format("<text x=\"%d\" y=\"%d\" textLength=\"%d\" lengthAdjust=\"spacingAndGlyphs\" class=\"%s\" \">%s</text>\n",x, y, length, style, content);
 	}
 	
-	/** Return the CSS style needed for these trees (needs to be added once per file)
+	/** Return the CSS style needed for these trees (needs to be added once per file).
+	 * It is read once, from the classpath or else from the project source folder.
      *
      * @return String representing CSS style for trees
      *
      * @throws java.io.IOException file read
      */
 	public static String treeStyles() throws IOException {
-		return  new String ( Files.readAllBytes( Paths.get(TREES_CSS_PATH) ) );
+		String css = styles;
+		if (css == null) {
+			try (InputStream in = TreeSVGRenderer.class.getResourceAsStream("trees.css")) {
+				css = in != null 
+						? new String(in.readAllBytes(), StandardCharsets.UTF_8)
+						: new String(Files.readAllBytes(Paths.get(TREES_CSS_PATH)), StandardCharsets.UTF_8);
+			}
+			styles = css;
+		}
+		return css;
 	}
 	
 	
@@ -298,16 +454,16 @@ public class TreeSVGRenderer {
 		return "</body>\n" + 
 			   "</html>\n";
 	}
+
 	/**
-     * Build graphical representation of PQ node
+     * Write graphical representation of PQ node
 	 * 
+	 * @param out where to write the SVG elements
 	 * @param cx x coordinate in SVG
 	 * @param cy y coordinate in SVG
-     *
 	 * @param item tree item to represent
-	 * @return String for SVG element
 	 */
-	public static String pqNode(int cx, int cy, TreeItem item) {
+	private static void writeNode(Appendable out, int cx, int cy, TreeItem item) throws IOException {
 		int radius = nodeWidth/2;
 		int halfR = radius/2;
 		int textWidth = (int)Math.floor(Math.sqrt(7.0/16.0*radius*radius));
@@ -315,8 +471,6 @@ public class TreeSVGRenderer {
 		
 		boolean badNode = false;    // Is the node different from expected
 		String nodeStyle = "";		// Node style modifiers (plural)
-		String line = "";			// Line to include (or now) in node
-		String nodeText = "";		// Text string(s) to include
 		
 		
 		// 1. Node itself
@@ -325,50 +479,45 @@ public class TreeSVGRenderer {
 	    	nodeStyle = "missingNode ";
 	    }			
 	    
-		// 2. Determine Labels 
+		// 2. Determine Labels and whether the node is bad
+		String valueStyle = "goodText";
+		String priorityStyle = "goodText";
 		if(item.empty==true) {
 			// Null Label case
 			badNode = true;
-			textWidth = radius;
-			nodeText += text(cx, cy, textWidth, "nullText", "NULL"); 
-			// No line
-			
 		} else {
-			// Non-null: 
-			
-			String textStyle;
-			
 			// Identify Value 
-			textStyle = "goodText";
 			if(item.expected!=null && !item.e.equals(item.expected.e)) {
-				textStyle = "badText";
+				valueStyle = "badText";
 				badNode = true;
 			}
-			nodeText += text(cx, cy+halfR, textWidth, textStyle, item.e);
-
 			// Identify Priority
-			// Identify Value 
-			textStyle = "goodText";
 			if(item.expected!=null && !item.p.equals(item.expected.p)) {
-				textStyle = "badText";
+				priorityStyle = "badText";
 				badNode = true;
 			}
-			nodeText +=  text(cx, cy-halfR, textWidth, textStyle, item.p);
-			
-			// Two pieces of text; Also add line
-			line = line(cx-radius, cy, cx+radius, cy, "treeLine");  // Not really a tree line, but close enough
 		}
 		
 	    nodeStyle += badNode ? "badNode" : "node";
-	    
-	    String circle = circle(cx,cy, radius, nodeStyle);
+	    out.append(circle(cx,cy, radius, nodeStyle));
+
+	    // Two pieces of text need a line between them
+	    if(item.empty==false) {
+	    	out.append(line(cx-radius, cy, cx+radius, cy, "treeLine"));  // Not really a tree line, but close enough
+	    }
 		
 		// 3. Cross out? 
-		String crossOut = "";
 		if((item.empty==true && item.expected==null) || (item.empty==false && item.expected!=null && item.expected.empty==true)) {
-			crossOut = line(cx-radius, cy-radius, cx+radius, cy+radius, "badLine") + line(cx+radius, cy-radius, cx-radius, cy+radius, "badLine");
+			out.append(line(cx-radius, cy-radius, cx+radius, cy+radius, "badLine"));
+			out.append(line(cx+radius, cy-radius, cx-radius, cy+radius, "badLine"));
+		}
+
+		if(item.empty==true) {
+			out.append(text(cx, cy, radius, "nullText", "NULL")); 
+		} else {
+			out.append(text(cx, cy+halfR, textWidth, valueStyle, item.e));
+			out.append(text(cx, cy-halfR, textWidth, priorityStyle, item.p));
 		}
-		return circle + line + crossOut + nodeText;
 	}
 	
 	
@@ -449,6 +598,32 @@ public class TreeSVGRenderer {
 		return "</svg>\n\n";
 	}
 
+	/**
+	 * Something that writes part of an HTML page.
+	 */
+	private interface Section {
+		void writeTo(Appendable out) throws IOException;
+	}
+
+	/**
+     * Append sections to the file outputs/name.html, writing each as it is produced
+     *
+     * @param name filename where the sections will be written
+     * @param sections what to write, in order
+     *
+     * @throws java.io.IOException file write
+     */
+	private static void writeFile(String name, Section... sections) throws IOException {
+		try (Writer out = Files.newBufferedWriter(Paths.get("outputs", name + ".html"), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			for (Section s : sections) {
+				s.writeTo(out);
+			}
+		} catch (IOException e) {
+		    System.err.println("Error: " + e.getMessage());
+		}
+	}
+
 	/**
      * Write string to file
      *
@@ -458,19 +633,19 @@ public class TreeSVGRenderer {
      * @throws java.io.IOException file write
      */
 	public static void writeFile(String name, String contents) throws IOException {
-		BufferedWriter out = null;
+		writeFile(name, out -> out.append(contents));
+	}
 
-		try {
-		    FileWriter fstream = new FileWriter("outputs/" + name + ".html", true); 
-		    out = new BufferedWriter(fstream);
-		    out.write(contents);
-		} catch (IOException e) {
-		    System.err.println("Error: " + e.getMessage());
-		} finally {
-		    if(out != null) {
-		        out.close();
-		    }
-		}
+	private static Section html(String s) {
+		return out -> out.append(s);
+	}
+
+	private static Section tree(String tree) {
+		return out -> writeLayout(out, treeItems(tree));
+	}
+
+	private static Section diff(String given, String expected) {
+		return out -> writeLayout(out, diffItems(given, expected));
 	}
 
     /**
@@ -484,24 +659,23 @@ public class TreeSVGRenderer {
      * @throws java.io.IOException file write
      */
 	public static void showErrorNoDelta(String before, String operation, String after, String file) throws IOException {
-		String contents;
-			contents = htmlStart(treeStyles()) + 
+		writeFile(file,
+				html(htmlStart(treeStyles()) + 
 					  "<h1 style=\"red;\">OPERATION INCORRECT!</h1><br />" +
 					  "<h2>String representation of initial tree</h2><br />" +
 					  "<pre>" + before + "</pre><br />" + 
-					  "<h2>Initial tree</h2><br />" +
-					  stringToTree(before) + "<br />" +
-
+					  "<h2>Initial tree</h2><br />"),
+				tree(before),
+				html("<br />" +
 					  "<h2>Operation</h2><br>" +
 					  "<code>" + operation + "</code>" + 
 					  					  
 					  "<h2>String representation of actual final tree produced</h2><br />" +
 					  "<pre>" + after + "</pre><br />" + 
-					  "<h2>Actual final tree produced</h2><br />" +
-					  stringToTree(after) + "<br />" +
-					  
-			          htmlEnd();
-			writeFile(file, contents);
+					  "<h2>Actual final tree produced</h2><br />"),
+				tree(after),
+				html("<br />" +
+			          htmlEnd()));
 	}
 	
     /**
@@ -517,55 +691,53 @@ public class TreeSVGRenderer {
      * @throws java.io.IOException file write
      */
 	public static void showError(String before, String operation, String expected, String after, String file) throws IOException {
-		String contents;
 		if(after.equals(expected)) {
-			contents = htmlStart(treeStyles()) + 
+			writeFile(file,
+					html(htmlStart(treeStyles()) + 
 					  "<h1 style=\"color:green;\">SUCCESS!</h1><br />" +
 					  "<h2>String representation of initial tree</h2><br />" +
 					  "<pre>" + before + "</pre><br />" + 
-					  "<h2>Initial tree</h2><br />" +
-					  stringToTree(before) + "<br />" +
-
+					  "<h2>Initial tree</h2><br />"),
+					tree(before),
+					html("<br />" +
 					  "<h2>Operation</h2><br>" +
 					  "<code>" + operation + "</code>" + 
 					  					  
 					  "<h2>String representation of actual final tree produced</h2><br />" +
 					  "<pre>" + after + "</pre><br />" + 
-					  "<h2>Actual final tree produced</h2><br />" +
-					  stringToTree(after) + "<br />" +
-					  
-			          htmlEnd();
+					  "<h2>Actual final tree produced</h2><br />"),
+					tree(after),
+					html("<br />" +
+			          htmlEnd()));
 			
 		} else {
-		
-			contents = htmlStart(treeStyles()) + 
+			writeFile(file,
+					html(htmlStart(treeStyles()) + 
 						  "<h1 style=\"color:red;\">OPERATION INCORRECT!</h1><br />" +
 						  "<h2>String representation of initial tree</h2><br />" +
 						  "<pre>" + before + "</pre><br />" + 
-						  "<h2>Initial tree</h2><br />" +
-						  stringToTree(before) + "<br />" +
-
+						  "<h2>Initial tree</h2><br />"),
+					tree(before),
+					html("<br />" +
 						  "<h2>Operation</h2><br>" +
 						  "<code>" + operation + "</code>" + 
 						  
 						  "<h2>String representation of expected tree</h2><br />" +
 						  "<pre>" + expected + "</pre><br />" + 
-						  "<h2>Expected tree</h2><br />" +
-						  stringToTree(expected) + "<br />" +
-
-						  
+						  "<h2>Expected tree</h2><br />"),
+					tree(expected),
+					html("<br />" +
 						  "<h2>String representation of actual final tree produced</h2><br />" +
 						  "<pre>" + after + "</pre><br />" + 
-						  "<h2>Actual final tree produced</h2><br />" +
-						  stringToTree(after) + "<br />" +
-						  
-						  "<h2>Differences/errors</h2><br />" + 
-						  diffTree(after,expected) + "<br />" +
+						  "<h2>Actual final tree produced</h2><br />"),
+					tree(after),
+					html("<br />" +
+						  "<h2>Differences/errors</h2><br />"),
+					diff(after, expected),
+					html("<br />" +
 						  nodeLegend() + 
-				          htmlEnd();
+				          htmlEnd()));
 		}
-	
-		writeFile(file, contents);
 	}
 	
 	